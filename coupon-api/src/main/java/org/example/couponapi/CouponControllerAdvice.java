@@ -1,7 +1,11 @@
 package org.example.couponapi;
 
 import org.example.couponapi.controller.dto.CouponIssueResponseDto;
+import org.example.couponapi.exception.CouponIssueOverloadException;
 import org.example.couponcore.exception.CouponIssueException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -13,4 +17,11 @@ public class CouponControllerAdvice {
         return new CouponIssueResponseDto(false, exception.getErrorCode().message);
 
     }
+
+    @ExceptionHandler(CouponIssueOverloadException.class)
+    public ResponseEntity<CouponIssueResponseDto> couponIssueOverloadExceptionHandler(CouponIssueOverloadException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(new CouponIssueResponseDto(false, exception.getErrorCode().message));
+    }
 }
@@ -0,0 +1,67 @@
+package org.example.couponapi.component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.service.CouponCacheService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+발급 시작이 lead-time-seconds 안으로 다가온 쿠폰을 API 인스턴스마다 미리 캐시에 올린다.
+- Redis 캐시와 로컬 캐시를 채워서 발급 시작 직후의 요청이 MySQL 까지 가지 않도록 한다.
+- 발급 요청 스크립트를 Redis 에 미리 올린다.
+발급이 시작되기 전까지는 주기마다 다시 올린다. lead-time-seconds 가 로컬 캐시의 만료 시간보다 길어도 발급 시작 시점에 캐시가 비어있지 않다.
+발급이 시작된 뒤에 한 번 올린 쿠폰은 발급 기한이 끝날 때까지 다시 올리지 않는다. (이후 갱신은 로컬 캐시의 refresh 와 쿠폰 캐시 갱신 알림이 담당한다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponCacheWarmer {
+
+    private final CouponJpaRepository couponJpaRepository;
+    private final CouponCacheService couponCacheService;
+    private final RedisRepository redisRepository;
+    private final Set<Long> warmedCouponIds = new HashSet<>();
+
+    @Value("${coupon.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${coupon.warmup.lead-time-seconds:300}")
+    private long leadTimeSeconds;
+
+    @Scheduled(fixedDelayString = "${coupon.warmup.interval-ms:10000}")
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> couponIds = couponJpaRepository.findIssuableCouponIds(now, now.plusSeconds(leadTimeSeconds));
+        Set<Long> startedCouponIds = new HashSet<>(couponJpaRepository.findIssuableCouponIds(now, now));
+        warmedCouponIds.retainAll(couponIds);
+        List<Long> targets = couponIds.stream().filter(couponId -> !warmedCouponIds.contains(couponId)).toList();
+        if (targets.isEmpty()) {
+            return;
+        }
+        redisRepository.loadIssueRequestScripts();
+        for (Long couponId : targets) {
+            try {
+                couponCacheService.putCouponCache(couponId);
+                couponCacheService.putCouponLocalCache(couponId);
+                if (startedCouponIds.contains(couponId)) {
+                    warmedCouponIds.add(couponId);
+                }
+            } catch (RuntimeException e) {
+                log.error("쿠폰 캐시 적재 실패 couponId: %s".formatted(couponId), e);
+            }
+        }
+        log.info("쿠폰 캐시 적재 완료 couponIds: %s".formatted(targets));
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.couponapi.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponapi.exception.CouponIssueOverloadException;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+발급 요청 큐가 밀려 있으면 비동기 발급 요청을 큐에 넣지 않고 바로 거절한다.
+큐 길이와 대기 시간은 refresh-interval-ms 마다 갱신한 값을 사용하므로 요청마다 Redis 를 조회하지 않는다.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+public class CouponIssueAdmissionController {
+
+    private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final Counter rejectedCounter;
+    private volatile long queueDepth;
+    private volatile long queueLagMillis;
+
+    @Value("${coupon.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${coupon.admission.max-queue-depth:100000}")
+    private long maxQueueDepth;
+
+    @Value("${coupon.admission.max-lag-ms:10000}")
+    private long maxLagMillis;
+
+    @Value("${coupon.admission.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    public CouponIssueAdmissionController(RedisRepository redisRepository, CouponIssuePartitioner couponIssuePartitioner, MeterRegistry meterRegistry) {
+        this.redisRepository = redisRepository;
+        this.couponIssuePartitioner = couponIssuePartitioner;
+        this.rejectedCounter = Counter.builder("coupon.issue.admission.rejected")
+                .description("큐가 밀려 거절한 발급 요청 수")
+                .register(meterRegistry);
+    }
+
+    public void checkAdmission() {
+        if (!enabled) {
+            return;
+        }
+        long depth = queueDepth;
+        long lagMillis = queueLagMillis;
+        if (depth >= maxQueueDepth || lagMillis >= maxLagMillis) {
+            rejectedCounter.increment();
+            throw new CouponIssueOverloadException(
+                    Math.max(retryAfterSeconds, lagMillis / 1000),
+                    "queueDepth: %s, lagMillis: %s".formatted(depth, lagMillis)
+            );
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.admission.refresh-interval-ms:500}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long depth = 0;
+        long lagMillis = 0;
+        for (String queueKey : couponIssuePartitioner.queueKeys()) {
+            depth += redisRepository.issueRequestQueueSize(queueKey);
+            lagMillis = Math.max(lagMillis, redisRepository.issueRequestQueueAgeMillis(queueKey, now));
+        }
+        queueDepth = depth;
+        queueLagMillis = lagMillis;
+    }
+}
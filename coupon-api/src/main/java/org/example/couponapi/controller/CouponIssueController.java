@@ -1,9 +1,12 @@
 package org.example.couponapi.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.couponapi.controller.dto.CouponIssueBundleRequestDto;
+import org.example.couponapi.controller.dto.CouponIssueBundleResponseDto;
 import org.example.couponapi.controller.dto.CouponIssueRequestDto;
 import org.example.couponapi.controller.dto.CouponIssueResponseDto;
 import org.example.couponapi.service.CouponIssueRequestService;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -29,7 +32,15 @@ public class CouponIssueController {
 
     @PostMapping("/v2/issue-async")
     public ResponseEntity<CouponIssueResponseDto> asyncIssueV2(@RequestBody CouponIssueRequestDto body) {
-        couponIssueRequestService.asyncIssueRequestV2(body);
+        CouponIssueRequestCode code = couponIssueRequestService.asyncIssueRequestV2(body);
+        if (!code.isSuccess()) {
+            return ResponseEntity.ok(new CouponIssueResponseDto(false, code.errorCode.message));
+        }
         return ResponseEntity.ok(new CouponIssueResponseDto(true, null));
     }
+
+    @PostMapping("/v2/issue-async/bundle")
+    public ResponseEntity<CouponIssueBundleResponseDto> asyncIssueBundleV2(@RequestBody CouponIssueBundleRequestDto body) {
+        return ResponseEntity.ok(CouponIssueBundleResponseDto.of(couponIssueRequestService.asyncIssueBundleRequestV2(body)));
+    }
 }
@@ -0,0 +1,13 @@
+package org.example.couponapi.controller.dto;
+
+import org.example.couponcore.component.CouponIssueBundleMode;
+
+import java.util.List;
+
+/* mode 가 없으면 ALL_OR_NOTHING 으로 발급한다. */
+public record CouponIssueBundleRequestDto(long userId, List<Long> couponIds, CouponIssueBundleMode mode) {
+
+    public CouponIssueBundleMode modeOrDefault() {
+        return mode == null ? CouponIssueBundleMode.ALL_OR_NOTHING : mode;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.couponapi.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+
+import java.util.List;
+import java.util.Map;
+
+/* isSuccess: 묶음의 모든 쿠폰이 발급 요청되었는지 */
+@JsonInclude(value = JsonInclude.Include.NON_NULL)
+public record CouponIssueBundleResponseDto(boolean isSuccess, List<Result> results) {
+
+    public static CouponIssueBundleResponseDto of(Map<Long, CouponIssueRequestCode> codes) {
+        List<Result> results = codes.entrySet().stream()
+                .map(entry -> new Result(entry.getKey(), entry.getValue().isSuccess(),
+                        entry.getValue().isSuccess() ? null : entry.getValue().errorCode.message))
+                .toList();
+        return new CouponIssueBundleResponseDto(results.stream().allMatch(Result::isSuccess), results);
+    }
+
+    @JsonInclude(value = JsonInclude.Include.NON_NULL)
+    public record Result(long couponId, boolean isSuccess, String comment) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.couponapi.exception;
+
+import lombok.Getter;
+import org.example.couponcore.exception.CouponIssueException;
+
+import static org.example.couponcore.exception.ErrorCode.TOO_MANY_COUPON_ISSUE_REQUEST;
+
+@Getter
+public class CouponIssueOverloadException extends CouponIssueException {
+
+    private final long retryAfterSeconds;
+
+    public CouponIssueOverloadException(long retryAfterSeconds, String message) {
+        super(TOO_MANY_COUPON_ISSUE_REQUEST, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -2,34 +2,58 @@ package org.example.couponapi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.couponapi.component.CouponIssueAdmissionController;
+import org.example.couponapi.controller.dto.CouponIssueBundleRequestDto;
 import org.example.couponapi.controller.dto.CouponIssueRequestDto;
+import org.example.couponcore.component.CouponIssueCombiner;
 import org.example.couponcore.component.DistributeLockExecutor;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
 import org.example.couponcore.service.AsyncCouponIssueServiceV1;
 import org.example.couponcore.service.AsyncCouponIssueServiceV2;
-import org.example.couponcore.service.CouponIssueService;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CouponIssueRequestService {
 
-    private final CouponIssueService couponIssueService;
+    private final CouponIssueCombiner couponIssueCombiner;
     private final AsyncCouponIssueServiceV1 couponIssueServiceV1;
     private final AsyncCouponIssueServiceV2 couponIssueServiceV2;
+    private final CouponIssueAdmissionController couponIssueAdmissionController;
 
     public void issueRequestV1(CouponIssueRequestDto requestDto) {
-        couponIssueService.issue(requestDto.couponId(), requestDto.userId());
+        couponIssueCombiner.issue(requestDto.couponId(), requestDto.userId());
         log.info(String.format("쿠폰 발급 완료. couponId: %s userId: %s", requestDto.couponId(), requestDto.userId()));
     }
 
     public void asyncIssueRequestV1(CouponIssueRequestDto requestDto) {
+        couponIssueAdmissionController.checkAdmission();
         couponIssueServiceV1.issue(requestDto.couponId(), requestDto.userId());
         log.info(String.format("쿠폰 발급 완료. couponId: %s userId: %s", requestDto.couponId(), requestDto.userId()));
     }
 
-    public void asyncIssueRequestV2(CouponIssueRequestDto requestDto) {
-        couponIssueServiceV2.issue(requestDto.couponId(), requestDto.userId());
-        log.info(String.format("쿠폰 발급 완료. couponId: %s userId: %s", requestDto.couponId(), requestDto.userId()));
+    /* 거절된 요청은 예외 없이 결과 코드로 반환하고, 발급 완료 로그는 성공한 요청만 남긴다. */
+    public CouponIssueRequestCode asyncIssueRequestV2(CouponIssueRequestDto requestDto) {
+        couponIssueAdmissionController.checkAdmission();
+        CouponIssueRequestCode code = couponIssueServiceV2.issue(requestDto.couponId(), requestDto.userId());
+        if (code.isSuccess()) {
+            log.info(String.format("쿠폰 발급 완료. couponId: %s userId: %s", requestDto.couponId(), requestDto.userId()));
+        }
+        return code;
+    }
+
+    /* 묶음 발급은 쿠폰 수와 관계없이 요청 하나로 admission 을 확인한다. */
+    public Map<Long, CouponIssueRequestCode> asyncIssueBundleRequestV2(CouponIssueBundleRequestDto requestDto) {
+        couponIssueAdmissionController.checkAdmission();
+        Map<Long, CouponIssueRequestCode> codes = couponIssueServiceV2.issueBundle(requestDto.userId(), requestDto.couponIds(), requestDto.modeOrDefault());
+        codes.forEach((couponId, code) -> {
+            if (code.isSuccess()) {
+                log.info(String.format("쿠폰 발급 완료. couponId: %s userId: %s", couponId, requestDto.userId()));
+            }
+        });
+        return codes;
     }
 }
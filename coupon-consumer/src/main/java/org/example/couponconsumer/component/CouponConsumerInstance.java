@@ -0,0 +1,22 @@
+package org.example.couponconsumer.component;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/*
+consumer 인스턴스 식별자
+처리 중 목록, heartbeat, 파티션 lease가 모두 같은 식별자를 사용해야 하므로 한 곳에서 만든다.
+ */
+@Getter
+@Component
+public class CouponConsumerInstance {
+
+    private final String id;
+
+    public CouponConsumerInstance(@Value("${coupon.consumer.id:}") String id) {
+        this.id = id.isBlank() ? UUID.randomUUID().toString() : id;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.couponconsumer.component;
+
+import lombok.RequiredArgsConstructor;
+import org.example.couponconsumer.queue.CouponIssueRetryQueue;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+/actuator/deadletters
+- GET: dead letter 목록 (payload: 실패 사유)
+- POST {"payload": ...}: 요청을 발급 요청 큐로 되돌린다. payload 가 없으면 전체를 되돌린다.
+- DELETE ?payload=...: 요청을 삭제한다. payload 가 없으면 전체를 삭제한다.
+ */
+@Component
+@Endpoint(id = "deadletters")
+@RequiredArgsConstructor
+public class CouponIssueDeadLetterEndpoint {
+
+    private final CouponIssueRetryQueue couponIssueRetryQueue;
+
+    @ReadOperation
+    public Map<String, String> deadLetters() {
+        return couponIssueRetryQueue.deadLetters();
+    }
+
+    @WriteOperation
+    public long requeue(@Nullable String payload) {
+        return targets(payload).stream()
+                .filter(couponIssueRetryQueue::requeueDeadLetter)
+                .count();
+    }
+
+    @DeleteOperation
+    public long purge(@Nullable String payload) {
+        return targets(payload).stream()
+                .filter(couponIssueRetryQueue::purgeDeadLetter)
+                .count();
+    }
+
+    private Collection<String> targets(String payload) {
+        if (payload == null) {
+            return couponIssueRetryQueue.deadLetters().keySet();
+        }
+        return List.of(payload);
+    }
+}
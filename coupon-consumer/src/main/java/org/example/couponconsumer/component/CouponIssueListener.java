@@ -1,50 +1,260 @@
 package org.example.couponconsumer.component;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponconsumer.queue.CouponIssueMessage;
+import org.example.couponconsumer.queue.CouponIssueQueue;
+import org.example.couponconsumer.queue.CouponIssueRetryQueue;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
 import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
 import org.example.couponcore.service.CouponIssueService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.couponcore.exception.ErrorCode.DUPLICATED_COUPON_ISSUE;
+import static org.example.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestNotifyChannel;
 
 @Slf4j
 @Component
 @EnableScheduling
 @RequiredArgsConstructor
-public class CouponIssueListener {
+public class CouponIssueListener implements SmartLifecycle, MessageListener {
 
-    private final RedisRepository redisRepository;
+    private final CouponIssueQueue couponIssueQueue;
+    private final CouponIssuePartitionLeaseManager couponIssuePartitionLeaseManager;
     private final CouponIssueService couponIssueService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final  String issueRequestQueueKey = getIssueRequestQueueKey();
+    private final CouponIssueWorkerPool couponIssueWorkerPool;
+    private final CouponIssueRetryQueue couponIssueRetryQueue;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    /*한 번에 꺼내올 최대 발급 요청 수*/
+    @Value("${coupon.consumer.batch-size:100}")
+    private int batchSize;
+
+    /* 알림을 놓쳤을 때 요청이 큐에서 대기하는 최대 시간 */
+    @Value("${coupon.consumer.max-wait-ms:10000}")
+    private long maxWaitMillis;
+
+    @Value("${coupon.consumer.auto-startup:true}")
+    private boolean autoStartup;
+
+    @Override
+    public void start() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(getIssueRequestNotifyChannel()));
+        running = true;
+        worker = new Thread(this::listen, "coupon-issue-listener");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        redisMessageListenerContainer.removeMessageListener(this);
+        signal.release();
+        try {
+            worker.join(maxWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    /* 큐가 비어있다가 요청이 들어오면 발급 서버가 알림을 보낸다. */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        signal.release();
+    }
+
+    /*
+    큐가 빌 때까지 발급하고, 처리할 요청이 없으면 알림이 오거나 max-wait-ms 가 지날 때까지 대기한다.
+    대기 중에는 Redis 로 요청을 보내지 않는다.
+     */
+    private void listen() {
+        while (running) {
+            try {
+                signal.drainPermits();
+                if (issue() == 0) {
+                    signal.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("발급 요청 처리 중 오류가 발생했습니다.", e);
+                sleepQuietly();
+            }
+        }
+    }
 
-    @Scheduled(fixedDelay = 1000L)
-    public void issue() throws JsonProcessingException {
-        log.info("listen...");
-        while(existCouponIssueTarget()) {
-            CouponIssueRequest target = getIssueTarget();
-            log.info("발급 시작 target: %s".formatted(target));
-            couponIssueService.issue(target.couponId(), target.userId());
-            log.info("발급 완료 target: %s".formatted(target));
-            removeIssueTarget();
+    /*
+    담당하는 큐를 비우고 처리한 요청 수를 반환한다.
+    실패한 요청은 재시도 대기열이나 dead letter 로 옮겨지므로 큐의 앞을 막지 않는다.
+     */
+    public int issue() {
+        int processed = 0;
+        for (String queueKey : couponIssuePartitionLeaseManager.ownedQueueKeys()) {
+            List<CouponIssueMessage> targets;
+            while (!(targets = couponIssueQueue.fetch(queueKey, batchSize)).isEmpty()) {
+                issue(queueKey, targets);
+                processed += targets.size();
+            }
         }
+        return processed;
     }
 
-    private boolean existCouponIssueTarget() {
-        return redisRepository.lSize(issueRequestQueueKey) > 0;
+    /*
+    쿠폰별로 묶어서 발급한다.
+    서로 다른 쿠폰은 worker pool 에서 동시에 발급하고, 같은 쿠폰의 요청은 한 작업에서 순서대로 발급한다.
+    묶음을 모두 처리한 뒤 다음 묶음을 꺼내므로 쿠폰별 요청 순서가 유지된다.
+     */
+    private void issue(String queueKey, List<CouponIssueMessage> targets) {
+        long startedAt = System.nanoTime();
+        Map<Long, List<IssueTarget>> issueTargets = groupByCoupon(targets);
+        log.info("발급 시작 size: %s, coupons: %s".formatted(targets.size(), issueTargets.keySet()));
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        AtomicInteger issued = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        issueTargets.forEach((couponId, group) -> tasks.add(() -> {
+            try {
+                Map<Long, CouponIssueException> failures = couponIssueService.issue(couponId, group.stream().map(target -> target.request().userId()).toList());
+                int succeeded = 0;
+                for (IssueTarget target : group) {
+                    if (complete(target, failures.get(target.request().userId()), failed)) {
+                        succeeded++;
+                    }
+                }
+                issued.addAndGet(succeeded);
+            } catch (Exception e) {
+                log.error("발급 실패 couponId: %s, size: %s".formatted(couponId, group.size()), e);
+                if (group.size() == 1) {
+                    fail(group.get(0), e, failed);
+                } else {
+                    issued.addAndGet(issueEach(couponId, group, failed));
+                }
+            }
+        }));
+        couponIssueWorkerPool.invokeAll(tasks);
+        couponIssueQueue.ack(queueKey, targets);
+        couponIssueRetryQueue.clear(targets.stream()
+                .map(CouponIssueMessage::payload)
+                .filter(payload -> !failed.contains(payload))
+                .toList());
+        couponIssueMetrics.recordBatch(targets.size(), Duration.ofNanos(System.nanoTime() - startedAt));
+        couponIssueMetrics.issued(issued.get());
+        log.info("발급 완료 size: %s, failed: %s".formatted(targets.size(), failed.size()));
     }
 
-    private CouponIssueRequest getIssueTarget() throws JsonProcessingException {
-        return objectMapper.readValue(redisRepository.lIndex(issueRequestQueueKey, 0), CouponIssueRequest.class);
+    /*
+    묶음 발급에 실패하면 요청별로 다시 발급해서 실패한 요청만 골라낸다.
+    남은 수량을 넘은 요청은 예외 없이 실패로 반환되므로, 묶음 발급의 예외는 일시적인 오류나 발급 기한처럼 묶음 전체의 실패이다.
+     */
+    private int issueEach(long couponId, List<IssueTarget> group, Set<String> failed) {
+        int succeeded = 0;
+        for (IssueTarget target : group) {
+            try {
+                CouponIssueException failure = couponIssueService.issue(couponId, List.of(target.request().userId())).get(target.request().userId());
+                if (complete(target, failure, failed)) {
+                    succeeded++;
+                }
+            } catch (Exception e) {
+                fail(target, e, failed);
+            }
+        }
+        return succeeded;
+    }
+
+    /*
+    발급 결과를 반영하고, 이번에 발급했는지 반환한다.
+    이미 발급된 유저는 이전 시도에서 발급된 요청이므로 실패로 옮기지 않고, 발급 수에도 세지 않는다.
+     */
+    private boolean complete(IssueTarget target, CouponIssueException failure, Set<String> failed) {
+        if (failure == null) {
+            return true;
+        }
+        if (failure.getErrorCode() != DUPLICATED_COUPON_ISSUE) {
+            fail(target, failure, failed);
+        }
+        return false;
+    }
+
+    /*
+    쿠폰 수량, 기간, 중복처럼 다시 시도해도 실패하는 요청은 바로 dead letter 로 옮기고,
+    그 외의 실패는 backoff 후 재시도한다.
+    묶음 발급 요청은 payload 단위로 한 번만 옮기고, 다시 발급할 때 이미 발급된 쿠폰은 유니크 인덱스로 건너뛴다.
+     */
+    private void fail(IssueTarget target, Exception e, Set<String> failed) {
+        String payload = target.message().payload();
+        if (!failed.add(payload)) {
+            return;
+        }
+        if (e instanceof CouponIssueException couponIssueException && couponIssueException.getErrorCode() != FAIL_COUPON_ISSUE_REQUEST) {
+            couponIssueRetryQueue.deadLetter(payload, e);
+            couponIssueMetrics.deadLettered(e);
+            return;
+        }
+        if (couponIssueRetryQueue.retry(payload, e)) {
+            couponIssueMetrics.retried(e);
+        } else {
+            couponIssueMetrics.deadLettered(e);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(maxWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<Long, List<IssueTarget>> groupByCoupon(List<CouponIssueMessage> targets) {
+        Map<Long, List<IssueTarget>> issueTargets = new LinkedHashMap<>();
+        for (CouponIssueMessage target : targets) {
+            try {
+                for (CouponIssueRequest request : couponIssueRequestCodec.decodeAll(target.payload())) {
+                    issueTargets.computeIfAbsent(request.couponId(), couponId -> new ArrayList<>()).add(new IssueTarget(target, request));
+                }
+            } catch (IllegalArgumentException e) {
+                log.error("읽을 수 없는 발급 요청을 제외합니다. payload: %s".formatted(target.payload()), e);
+                couponIssueMetrics.dropped();
+            }
+        }
+        return issueTargets;
     }
 
-    private void removeIssueTarget() {
-        redisRepository.lPop(issueRequestQueueKey);
+    private record IssueTarget(CouponIssueMessage message, CouponIssueRequest request) {
     }
 }
@@ -0,0 +1,153 @@
+package org.example.couponconsumer.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDeadLetterKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestCountKeyPrefix;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKeyPrefix;
+
+/*
+발급 요청 큐와 consumer 의 처리량을 Micrometer 로 내보낸다.
+큐의 상태는 scrape 마다 Redis 를 조회하지 않도록 coupon.metrics.sample-interval-ms 마다 갱신한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponIssueMetrics {
+
+    private static final String ISSUE_REQUEST_KEY_PREFIX = getIssueRequestKeyPrefix();
+    private static final String ISSUE_REQUEST_COUNT_KEY_PREFIX = getIssueRequestCountKeyPrefix();
+
+    private final MeterRegistry meterRegistry;
+    private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final Map<String, AtomicLong> queueDepths = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> oldestAges = new ConcurrentHashMap<>();
+    private final AtomicLong delayedSize = new AtomicLong();
+    private final AtomicLong deadLetterSize = new AtomicLong();
+    private MultiGauge issueRequestSetSizes;
+    private Timer batchTimer;
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    void init() {
+        for (String queueKey : couponIssuePartitioner.queueKeys()) {
+            Gauge.builder("coupon.issue.queue.depth", queueDepths.computeIfAbsent(queueKey, key -> new AtomicLong()), AtomicLong::get)
+                    .description("발급 요청 큐에 남은 요청 수")
+                    .tag("queue", queueKey)
+                    .register(meterRegistry);
+            TimeGauge.builder("coupon.issue.queue.oldest.age", oldestAges.computeIfAbsent(queueKey, key -> new AtomicLong()), TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .description("발급 요청 큐에서 가장 오래 대기한 요청의 대기 시간")
+                    .tag("queue", queueKey)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("coupon.issue.retry.delayed", delayedSize, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("coupon.issue.dead.letter", deadLetterSize, AtomicLong::get).register(meterRegistry);
+        issueRequestSetSizes = MultiGauge.builder("coupon.issue.request.set.size")
+                .description("쿠폰별 발급 요청 수 (issue.request.couponId=*, issue.request.count.couponId=*)")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("coupon.issue.batch").description("큐에서 꺼낸 묶음의 처리 시간").register(meterRegistry);
+        batchSize = DistributionSummary.builder("coupon.issue.batch.size").description("큐에서 꺼낸 묶음의 요청 수").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.metrics.sample-interval-ms:5000}")
+    public void sample() {
+        long now = System.currentTimeMillis();
+        queueDepths.forEach((queueKey, depth) -> depth.set(redisRepository.issueRequestQueueSize(queueKey)));
+        oldestAges.forEach((queueKey, age) -> age.set(redisRepository.issueRequestQueueAgeMillis(queueKey, now)));
+        long delayed = 0;
+        for (int partition = 0; partition < couponIssuePartitioner.getPartitionCount(); partition++) {
+            delayed += redisRepository.zCount(couponIssuePartitioner.delayedKey(partition), 0, Double.MAX_VALUE);
+        }
+        delayedSize.set(delayed);
+        deadLetterSize.set(redisRepository.hLen(getIssueRequestDeadLetterKey()));
+        Map<String, Long> issueRequestCounts = new HashMap<>();
+        for (String key : redisRepository.scan(ISSUE_REQUEST_KEY_PREFIX + "*")) {
+            issueRequestCounts.merge(couponIdOf(ISSUE_REQUEST_KEY_PREFIX, key), redisRepository.sCard(key), Long::sum);
+        }
+        /* BITMAP 으로 기록하는 쿠폰은 요청 수 카운터에 bitmap 과 set 의 요청 수가 모두 포함되어 있다. */
+        for (String key : redisRepository.scan(ISSUE_REQUEST_COUNT_KEY_PREFIX + "*")) {
+            String count = redisRepository.get(key);
+            if (count != null) {
+                issueRequestCounts.put(couponIdOf(ISSUE_REQUEST_COUNT_KEY_PREFIX, key), Long.parseLong(count));
+            }
+        }
+        issueRequestSetSizes.register(issueRequestCounts.entrySet().stream()
+                .map(entry -> MultiGauge.Row.of(Tags.of("couponId", entry.getKey()), entry.getValue()))
+                .toList(), true);
+    }
+
+    /*
+    발급 요청 set 을 나눈 쿠폰은 shard 의 합을 쿠폰 하나로 보여준다.
+    (issue.request.couponId={id}{hash tag}, issue.request.couponId={id}.shard={n}{hash tag})
+     */
+    private static String couponIdOf(String prefix, String issueRequestKey) {
+        String couponId = issueRequestKey.substring(prefix.length());
+        int hashTag = couponId.indexOf('{');
+        if (hashTag >= 0) {
+            couponId = couponId.substring(0, hashTag);
+        }
+        int shard = couponId.indexOf(".shard=");
+        return shard < 0 ? couponId : couponId.substring(0, shard);
+    }
+
+    public void recordBatch(int size, Duration elapsed) {
+        batchTimer.record(elapsed);
+        batchSize.record(size);
+    }
+
+    public void issued(int count) {
+        processed("issued").increment(count);
+    }
+
+    public void retried(Exception cause) {
+        processed("retried").increment();
+        failed(cause).increment();
+    }
+
+    public void deadLettered(Exception cause) {
+        processed("dead_lettered").increment();
+        failed(cause).increment();
+    }
+
+    public void dropped() {
+        processed("dropped").increment();
+    }
+
+    private Counter processed(String result) {
+        return Counter.builder("coupon.issue.processed")
+                .description("consumer 가 처리한 발급 요청 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter failed(Exception cause) {
+        String errorCode = cause instanceof CouponIssueException couponIssueException
+                ? couponIssueException.getErrorCode().name()
+                : "UNEXPECTED";
+        return Counter.builder("coupon.issue.failure")
+                .description("발급에 실패한 요청 수")
+                .tag("errorCode", errorCode)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.couponconsumer.component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestConsumerKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestPartitionLeaseKey;
+
+/*
+파티션 큐를 consumer 인스턴스에 나눠준다.
+- 파티션마다 lease 키(SET NX PX)를 두고, lease를 가진 consumer만 해당 파티션을 소비한다.
+- 살아있는 consumer 수로 나눈 만큼만 파티션을 가지고, 초과한 파티션은 반납해서 다른 consumer가 가져가게 한다.
+- lease가 비활성화되어 있으면 모든 파티션을 소비한다.
+lease 갱신은 전용 스레드에서 실행한다. 공유 @Scheduled 스레드에서 다른 작업이 늦어지면 lease 가 만료되어 다른 consumer 와 파티션을 함께 소비할 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssuePartitionLeaseManager implements DisposableBean {
+
+    private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final CouponConsumerInstance couponConsumerInstance;
+    private final String consumerKey = getIssueRequestConsumerKey();
+
+    @Value("${coupon.consumer.partition-lease.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coupon.consumer.partition-lease.lease-ms:10000}")
+    private long leaseMillis;
+
+    @Value("${coupon.consumer.partition-lease.renew-interval-ms:3000}")
+    private long renewIntervalMillis;
+
+    private final ScheduledExecutorService renewScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-partition-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile List<Integer> ownedPartitions = List.of();
+
+    @PostConstruct
+    void scheduleRenew() {
+        if (enabled) {
+            renewScheduler.scheduleWithFixedDelay(this::renew, 0, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        renewScheduler.shutdown();
+        renewScheduler.awaitTermination(leaseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public List<String> ownedQueueKeys() {
+        if (!enabled) {
+            return couponIssuePartitioner.queueKeys();
+        }
+        return ownedPartitions.stream()
+                .map(couponIssuePartitioner::queueKey)
+                .toList();
+    }
+
+    /* 예외가 나면 ScheduledExecutorService 가 다음 실행을 취소하므로 여기서 처리한다. */
+    private void renew() {
+        try {
+            rebalance();
+        } catch (RuntimeException e) {
+            log.error("파티션 lease 갱신 실패", e);
+        }
+    }
+
+    public void rebalance() {
+        if (!enabled) {
+            return;
+        }
+        String consumerId = couponConsumerInstance.getId();
+        long now = System.currentTimeMillis();
+        redisRepository.zUpdate(consumerKey, consumerId, now);
+        int partitionCount = couponIssuePartitioner.getPartitionCount();
+        long liveConsumers = Math.max(1, redisRepository.zCount(consumerKey, now - leaseMillis, Double.MAX_VALUE));
+        int target = (int) Math.ceil((double) partitionCount / liveConsumers);
+        Duration lease = Duration.ofMillis(leaseMillis);
+
+        List<Integer> owned = new ArrayList<>();
+        int start = Math.floorMod(consumerId.hashCode(), partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            int partition = (start + i) % partitionCount;
+            if (redisRepository.expireIfEquals(getIssueRequestPartitionLeaseKey(partition), consumerId, lease)) {
+                owned.add(partition);
+            }
+        }
+        while (owned.size() > target) {
+            redisRepository.deleteIfEquals(getIssueRequestPartitionLeaseKey(owned.remove(owned.size() - 1)), consumerId);
+        }
+        for (int i = 0; i < partitionCount && owned.size() < target; i++) {
+            int partition = (start + i) % partitionCount;
+            if (!owned.contains(partition)
+                    && Boolean.TRUE.equals(redisRepository.setIfAbsent(getIssueRequestPartitionLeaseKey(partition), consumerId, lease))) {
+                owned.add(partition);
+            }
+        }
+        if (!owned.equals(ownedPartitions)) {
+            log.info("소비 파티션 변경 consumerId: %s, partitions: %s".formatted(consumerId, owned));
+        }
+        ownedPartitions = List.copyOf(owned);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.couponconsumer.component;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+쿠폰별 발급 작업을 동시에 실행한다.
+JDK 21 이상이면 가상 스레드를, 아니면 플랫폼 스레드 풀을 사용하고
+동시에 실행되는 작업 수는 DB 커넥션 풀 크기를 넘지 않는다.
+ */
+@Slf4j
+@Component
+public class CouponIssueWorkerPool implements DisposableBean {
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    @Getter
+    private final int concurrency;
+
+    public CouponIssueWorkerPool(
+            @Value("${coupon.consumer.worker.concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int concurrency,
+            @Value("${coupon.consumer.worker.virtual-threads:true}") boolean virtualThreads
+    ) {
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        ExecutorService virtualThreadExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            this.executorService = virtualThreadExecutor;
+        } else {
+            this.executorService = Executors.newFixedThreadPool(concurrency);
+        }
+        log.info("발급 worker pool concurrency: %s, virtualThreads: %s".formatted(concurrency, virtualThreadExecutor != null));
+    }
+
+    /* 모든 작업이 끝날 때까지 기다린다. 작업의 예외는 각 작업에서 처리해야 한다. */
+    public void invokeAll(List<Runnable> tasks) {
+        CompletableFuture.allOf(tasks.stream()
+                .map(task -> CompletableFuture.runAsync(() -> runWithPermit(task), executorService))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+    }
+
+    private void runWithPermit(Runnable task) {
+        permits.acquireUninterruptibly();
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.couponconsumer.queue;
+
+/*
+큐에서 꺼낸 발급 요청
+- id: ack/재처리 시 큐에서 요청을 식별하는 값
+- payload: 직렬화된 CouponIssueRequest
+ */
+public record CouponIssueMessage(String id, String payload) {
+
+    public static CouponIssueMessage of(String payload) {
+        return new CouponIssueMessage(payload, payload);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.couponconsumer.queue;
+
+import java.util.List;
+
+public interface CouponIssueQueue {
+
+    /* queueKey 큐에서 최대 count개의 발급 요청을 요청 순서대로 가져온다. */
+    List<CouponIssueMessage> fetch(String queueKey, int count);
+
+    /* fetch로 가져온 요청의 처리가 끝났음을 알린다. */
+    void ack(String queueKey, List<CouponIssueMessage> messages);
+
+    /* 처리에 실패한 요청을 큐의 뒤에 다시 넣는다. */
+    void requeue(String queueKey, List<CouponIssueMessage> messages);
+}
@@ -0,0 +1,133 @@
+package org.example.couponconsumer.queue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDeadLetterKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestRetryKey;
+
+/*
+발급에 실패한 요청의 재시도와 dead letter 를 관리한다.
+- issue.request.retry: payload 별 재시도 횟수 (hash)
+- issue.request.delayed{파티션 큐}: 파티션마다 재시도 시각을 score 로 가지는 대기열 (sorted set)
+- issue.request.dead-letter: 재시도하지 않을 요청과 실패 사유 (hash)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueRetryQueue {
+
+    private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final String retryKey = getIssueRequestRetryKey();
+    private final String deadLetterKey = getIssueRequestDeadLetterKey();
+
+    private static final int PROMOTE_BATCH_SIZE = 100;
+
+    @Value("${coupon.consumer.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${coupon.consumer.retry.backoff-ms:1000}")
+    private long backoffMillis;
+
+    @Value("${coupon.consumer.retry.max-backoff-ms:60000}")
+    private long maxBackoffMillis;
+
+    /*
+    재시도 횟수를 넘지 않았다면 backoff-ms * 2^(재시도 횟수 - 1) 뒤에 다시 발급하고, 넘었다면 dead letter 로 옮긴다.
+    dead letter 로 옮겼다면 false 를 반환한다.
+     */
+    public boolean retry(String payload, Exception cause) {
+        String delayedKey;
+        try {
+            delayedKey = couponIssuePartitioner.delayedKeyOf(couponIdOf(payload));
+        } catch (IllegalArgumentException e) {
+            deadLetter(payload, e);
+            return false;
+        }
+        long attempts = redisRepository.hIncrBy(retryKey, payload, 1);
+        if (attempts > maxAttempts) {
+            deadLetter(payload, cause);
+            return false;
+        }
+        long backoff = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempts - 1, 30));
+        redisRepository.zUpdate(delayedKey, payload, System.currentTimeMillis() + backoff);
+        log.warn("발급 요청을 %sms 뒤에 다시 발급합니다. attempts: %s, payload: %s".formatted(backoff, attempts, payload));
+        return true;
+    }
+
+    public void deadLetter(String payload, Exception cause) {
+        redisRepository.hSet(deadLetterKey, payload, reasonOf(cause));
+        redisRepository.hDel(retryKey, payload);
+        log.error("발급 요청을 dead letter 로 옮겼습니다. payload: %s, reason: %s".formatted(payload, reasonOf(cause)));
+    }
+
+    /* 발급에 성공한 요청의 재시도 횟수를 지운다. */
+    public void clear(Collection<String> payloads) {
+        if (!payloads.isEmpty()) {
+            redisRepository.hDel(retryKey, payloads.toArray());
+        }
+    }
+
+    /* 재시도 시각이 지난 요청을 파티션마다 원래의 발급 요청 큐로 되돌린다. */
+    @Scheduled(fixedDelayString = "${coupon.consumer.retry.promote-interval-ms:1000}")
+    public void promote() {
+        long now = System.currentTimeMillis();
+        for (int partition = 0; partition < couponIssuePartitioner.getPartitionCount(); partition++) {
+            String delayedKey = couponIssuePartitioner.delayedKey(partition);
+            String queueKey = couponIssuePartitioner.queueKey(partition);
+            long promoted;
+            do {
+                promoted = redisRepository.promoteDelayedIssueRequests(delayedKey, queueKey, now, PROMOTE_BATCH_SIZE);
+            } while (promoted == PROMOTE_BATCH_SIZE);
+        }
+    }
+
+    public Map<String, String> deadLetters() {
+        return redisRepository.hGetAll(deadLetterKey);
+    }
+
+    /* dead letter 의 요청을 재시도 횟수를 초기화해서 발급 요청 큐로 되돌린다. */
+    public boolean requeueDeadLetter(String payload) {
+        if (redisRepository.hDel(deadLetterKey, payload) != 1) {
+            return false;
+        }
+        enqueue(payload);
+        return true;
+    }
+
+    public boolean purgeDeadLetter(String payload) {
+        return redisRepository.hDel(deadLetterKey, payload) == 1;
+    }
+
+    private void enqueue(String payload) {
+        try {
+            redisRepository.pushIssueRequest(couponIssuePartitioner.queueKeyOf(couponIdOf(payload)), payload);
+        } catch (IllegalArgumentException e) {
+            log.error("읽을 수 없는 발급 요청을 제외합니다. payload: %s".formatted(payload), e);
+        }
+    }
+
+    /* 묶음 발급 요청의 쿠폰들은 같은 파티션이다. */
+    private long couponIdOf(String payload) {
+        return couponIssueRequestCodec.decodeAll(payload).get(0).couponId();
+    }
+
+    private static String reasonOf(Exception cause) {
+        if (cause instanceof CouponIssueException couponIssueException) {
+            return couponIssueException.getMessage();
+        }
+        return "%s: %s".formatted(cause.getClass().getSimpleName(), cause.getMessage());
+    }
+}
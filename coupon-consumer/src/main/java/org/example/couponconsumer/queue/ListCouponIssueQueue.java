@@ -0,0 +1,38 @@
+package org.example.couponconsumer.queue;
+
+import lombok.RequiredArgsConstructor;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+큐의 앞부분을 조회(LRANGE)하고 처리가 끝나면 제거(LTRIM)한다.
+큐의 앞부분을 기준으로 ack하므로 하나의 큐는 하나의 consumer만 소비해야 한다.
+ */
+@Component
+@ConditionalOnExpression("'${coupon.queue.transport:list}' == 'list' and '${coupon.consumer.queue-mode:simple}' == 'simple'")
+@RequiredArgsConstructor
+public class ListCouponIssueQueue implements CouponIssueQueue {
+
+    private final RedisRepository redisRepository;
+
+    @Override
+    public List<CouponIssueMessage> fetch(String queueKey, int count) {
+        return redisRepository.lRange(queueKey, 0, count - 1).stream()
+                .map(CouponIssueMessage::of)
+                .toList();
+    }
+
+    /* fetch로 가져온 묶음 전체를 한 번에 ack 해야 한다. */
+    @Override
+    public void ack(String queueKey, List<CouponIssueMessage> messages) {
+        redisRepository.lTrim(queueKey, messages.size(), -1);
+    }
+
+    @Override
+    public void requeue(String queueKey, List<CouponIssueMessage> messages) {
+        redisRepository.rPushAll(queueKey, messages.stream().map(CouponIssueMessage::payload).toList());
+    }
+}
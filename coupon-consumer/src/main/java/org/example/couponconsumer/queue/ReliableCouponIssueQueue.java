@@ -0,0 +1,82 @@
+package org.example.couponconsumer.queue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponconsumer.component.CouponConsumerInstance;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestConsumerKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestNotifyChannel;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestProcessingKey;
+
+/*
+발급 요청을 consumer별 처리 중 목록으로 원자적으로 옮긴 뒤 처리하고, 처리가 끝나면 처리 중 목록에서 제거한다.
+- 여러 consumer가 같은 큐를 동시에 소비해도 하나의 요청은 하나의 consumer만 가져간다.
+- consumer는 주기적으로 heartbeat를 남기고, visibility timeout 동안 heartbeat가 없는 consumer의
+  처리 중 요청은 다른 consumer가 큐의 앞쪽으로 되돌린다.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${coupon.queue.transport:list}' == 'list' and '${coupon.consumer.queue-mode:simple}' == 'reliable'")
+@RequiredArgsConstructor
+public class ReliableCouponIssueQueue implements CouponIssueQueue {
+
+    private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final CouponConsumerInstance couponConsumerInstance;
+    private final String consumerKey = getIssueRequestConsumerKey();
+
+    @Value("${coupon.consumer.visibility-timeout-ms:30000}")
+    private long visibilityTimeoutMillis;
+
+    @Override
+    public List<CouponIssueMessage> fetch(String queueKey, int count) {
+        heartbeat();
+        return redisRepository.lMove(queueKey, getIssueRequestProcessingKey(queueKey, couponConsumerInstance.getId()), count).stream()
+                .map(CouponIssueMessage::of)
+                .toList();
+    }
+
+    @Override
+    public void ack(String queueKey, List<CouponIssueMessage> messages) {
+        redisRepository.lRemAll(getIssueRequestProcessingKey(queueKey, couponConsumerInstance.getId()), payloads(messages));
+    }
+
+    @Override
+    public void requeue(String queueKey, List<CouponIssueMessage> messages) {
+        redisRepository.rPushAll(queueKey, payloads(messages));
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.consumer.heartbeat-interval-ms:5000}")
+    public void reclaim() {
+        heartbeat();
+        long expiredAt = System.currentTimeMillis() - visibilityTimeoutMillis;
+        for (String expiredConsumerId : redisRepository.zRangeByScore(consumerKey, 0, expiredAt)) {
+            long reclaimed = 0;
+            for (String queueKey : couponIssuePartitioner.queueKeys()) {
+                long moved = redisRepository.lMoveAllToHead(getIssueRequestProcessingKey(queueKey, expiredConsumerId), queueKey);
+                if (moved > 0) {
+                    redisRepository.publish(getIssueRequestNotifyChannel(), queueKey);
+                }
+                reclaimed += moved;
+            }
+            redisRepository.zRem(consumerKey, expiredConsumerId);
+            log.warn("응답 없는 consumer의 처리 중 요청을 되돌렸습니다. consumerId: %s, size: %s".formatted(expiredConsumerId, reclaimed));
+        }
+    }
+
+    private void heartbeat() {
+        redisRepository.zUpdate(consumerKey, couponConsumerInstance.getId(), System.currentTimeMillis());
+    }
+
+    private List<String> payloads(List<CouponIssueMessage> messages) {
+        return messages.stream().map(CouponIssueMessage::payload).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.couponconsumer.queue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponconsumer.component.CouponConsumerInstance;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.example.couponcore.repository.redis.RedisRepository.streamPayload;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestNotifyChannel;
+
+/*
+Redis Stream의 consumer group으로 발급 요청을 소비한다.
+- XREADGROUP으로 가져온 요청은 consumer group의 pending 목록에 기록되고, ack할 때 XACK/XDEL로 제거한다.
+- visibility timeout 동안 ack되지 않은 요청은 XPENDING/XCLAIM으로 가져와 Stream의 뒤에 다시 넣는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "coupon.queue.transport", havingValue = "stream")
+@RequiredArgsConstructor
+public class StreamCouponIssueQueue implements CouponIssueQueue {
+
+    private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final CouponConsumerInstance couponConsumerInstance;
+    private final Set<String> initializedStreams = ConcurrentHashMap.newKeySet();
+
+    @Value("${coupon.consumer.stream-group:coupon-consumer}")
+    private String group;
+
+    @Value("${coupon.consumer.visibility-timeout-ms:30000}")
+    private long visibilityTimeoutMillis;
+
+    @Override
+    public List<CouponIssueMessage> fetch(String queueKey, int count) {
+        createGroupIfAbsent(queueKey);
+        List<MapRecord<String, Object, Object>> records;
+        try {
+            records = redisRepository.xReadGroup(queueKey, group, couponConsumerInstance.getId(), count);
+        } catch (RedisSystemException e) {
+            // Stream이 삭제되어 consumer group이 사라진 경우 다시 만든다.
+            initializedStreams.remove(queueKey);
+            createGroupIfAbsent(queueKey);
+            records = redisRepository.xReadGroup(queueKey, group, couponConsumerInstance.getId(), count);
+        }
+        if (records == null) {
+            return List.of();
+        }
+        return records.stream()
+                .map(record -> new CouponIssueMessage(record.getId().getValue(), streamPayload(record)))
+                .toList();
+    }
+
+    @Override
+    public void ack(String queueKey, List<CouponIssueMessage> messages) {
+        List<String> recordIds = messages.stream().map(CouponIssueMessage::id).toList();
+        redisRepository.xAck(queueKey, group, recordIds);
+        redisRepository.xDel(queueKey, recordIds);
+    }
+
+    @Override
+    public void requeue(String queueKey, List<CouponIssueMessage> messages) {
+        messages.forEach(message -> redisRepository.xAdd(queueKey, message.payload()));
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.consumer.heartbeat-interval-ms:5000}")
+    public void reclaim() {
+        Duration visibilityTimeout = Duration.ofMillis(visibilityTimeoutMillis);
+        for (String queueKey : couponIssuePartitioner.queueKeys()) {
+            createGroupIfAbsent(queueKey);
+            List<String> expiredIds = redisRepository.xPending(queueKey, group, 1000).stream()
+                    .filter(pending -> pending.getElapsedTimeSinceLastDelivery().compareTo(visibilityTimeout) >= 0)
+                    .map(PendingMessage::getIdAsString)
+                    .toList();
+            List<CouponIssueMessage> claimed = redisRepository.xClaim(queueKey, group, couponConsumerInstance.getId(), visibilityTimeout, expiredIds).stream()
+                    .map(record -> new CouponIssueMessage(record.getId().getValue(), streamPayload(record)))
+                    .toList();
+            if (!claimed.isEmpty()) {
+                requeue(queueKey, claimed);
+                ack(queueKey, claimed);
+                redisRepository.publish(getIssueRequestNotifyChannel(), queueKey);
+                log.warn("ack되지 않은 요청을 되돌렸습니다. queue: %s, size: %s".formatted(queueKey, claimed.size()));
+            }
+        }
+    }
+
+    private void createGroupIfAbsent(String queueKey) {
+        if (initializedStreams.add(queueKey)) {
+            redisRepository.xGroupCreate(queueKey, group);
+        }
+    }
+}
@@ -2,25 +2,37 @@ package org.example.couponconsumer.component;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import org.example.couponconsumer.TestConfig;
+import org.example.couponconsumer.queue.CouponIssueRetryQueue;
+import org.example.couponconsumer.queue.ListCouponIssueQueue;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.exception.ErrorCode;
 import org.example.couponcore.repository.redis.RedisRepository;
 import org.example.couponcore.service.CouponIssueService;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InOrder;
-import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.IntStream;
 
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDeadLetterKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDelayedKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestRetryKey;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
-@Import(CouponIssueListener.class)
+@Import({CouponIssueListener.class, ListCouponIssueQueue.class, CouponIssuePartitionLeaseManager.class, CouponConsumerInstance.class, CouponIssueWorkerPool.class, CouponIssueRetryQueue.class, CouponIssueMetrics.class})
+@TestPropertySource(properties = "coupon.consumer.auto-startup=false")
 class CouponIssueListenerTest extends TestConfig {
 
     @Autowired
@@ -47,7 +59,7 @@ class CouponIssueListenerTest extends TestConfig {
         // When
         sut.issue();
         // Then
-        verify(couponIssueService, never()).issue(anyLong(), anyLong());
+        verify(couponIssueService, never()).issue(anyLong(), anyList());
     }
 
     @Test
@@ -61,7 +73,7 @@ class CouponIssueListenerTest extends TestConfig {
         // When
         sut.issue();
         // Then
-        verify(couponIssueService, times(1)).issue(anyLong(), anyLong());
+        verify(couponIssueService, times(1)).issue(anyLong(), anyList());
     }
 
     @Test
@@ -74,9 +86,139 @@ class CouponIssueListenerTest extends TestConfig {
         // When
         sut.issue();
         // Then
-        InOrder inOrder = Mockito.inOrder(couponIssueService);
-        IntStream.range(1, 10).forEach(userId ->
-                inOrder.verify(couponIssueService, times(1)).issue(couponId, userId)
-        );
+        verify(couponIssueService, times(1)).issue(couponId, List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("쿠폰 발급 요청을 쿠폰별로 묶어 쿠폰마다 요청 순서대로 처리하고 큐에서 제거한다.")
+    void issue_4() throws JsonProcessingException {
+        // Given
+        int totalQuantity = Integer.MAX_VALUE;
+        redisRepository.issueRequest(1, 1, totalQuantity);
+        redisRepository.issueRequest(2, 2, totalQuantity);
+        redisRepository.issueRequest(1, 3, totalQuantity);
+        // When
+        sut.issue();
+        // Then
+        verify(couponIssueService, times(1)).issue(1L, List.of(1L, 3L));
+        verify(couponIssueService, times(1)).issue(2L, List.of(2L));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+    }
+
+    @Test
+    @DisplayName("묶음 발급에 실패하면 요청별로 다시 발급하고, 다른 쿠폰의 요청은 계속 처리한다.")
+    void issue_5() {
+        // Given
+        int totalQuantity = Integer.MAX_VALUE;
+        redisRepository.issueRequest(1, 1, totalQuantity);
+        redisRepository.issueRequest(1, 3, totalQuantity);
+        redisRepository.issueRequest(2, 2, totalQuantity);
+        doThrow(new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, "test"))
+                .when(couponIssueService).issue(1L, List.of(1L, 3L));
+        doThrow(new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, "test"))
+                .when(couponIssueService).issue(1L, List.of(3L));
+        // When
+        sut.issue();
+        // Then
+        verify(couponIssueService, times(1)).issue(1L, List.of(1L));
+        verify(couponIssueService, times(1)).issue(1L, List.of(3L));
+        verify(couponIssueService, times(1)).issue(2L, List.of(2L));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+        Assertions.assertEquals(1, redisRepository.hGetAll(getIssueRequestDeadLetterKey()).size());
+    }
+
+    @Test
+    @DisplayName("다시 시도해도 실패하는 요청은 재시도하지 않고 실패 사유와 함께 dead letter로 옮긴다.")
+    void issue_6() {
+        // Given
+        int totalQuantity = Integer.MAX_VALUE;
+        redisRepository.issueRequest(1, 1, totalQuantity);
+        doThrow(new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_DATE, "test"))
+                .when(couponIssueService).issue(1L, List.of(1L));
+        // When
+        sut.issue();
+        // Then
+        verify(couponIssueService, times(1)).issue(1L, List.of(1L));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+        Assertions.assertEquals(List.of(new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_DATE, "test").getMessage()),
+                List.copyOf(redisRepository.hGetAll(getIssueRequestDeadLetterKey()).values()));
+        Assertions.assertEquals(0, redisRepository.zCount(getIssueRequestDelayedKey(getIssueRequestQueueKey()), 0, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("일시적인 오류로 실패한 요청은 재시도 횟수를 남기고 재시도 대기열에 넣는다.")
+    void issue_7() {
+        // Given
+        int totalQuantity = Integer.MAX_VALUE;
+        redisRepository.issueRequest(1, 1, totalQuantity);
+        doThrow(new IllegalStateException("connection"))
+                .when(couponIssueService).issue(1L, List.of(1L));
+        // When
+        sut.issue();
+        // Then
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+        Assertions.assertEquals(List.of("1"), List.copyOf(redisRepository.hGetAll(getIssueRequestRetryKey()).values()));
+        Assertions.assertEquals(1, redisRepository.zCount(getIssueRequestDelayedKey(getIssueRequestQueueKey()), 0, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 요청은 쿠폰마다 나눠서 발급한다.")
+    void issue_8() {
+        // Given
+        redisRepository.issueBundleRequest(7, List.of(1L, 2L), List.of(Integer.MAX_VALUE, Integer.MAX_VALUE), true);
+        // When
+        sut.issue();
+        // Then
+        verify(couponIssueService, times(1)).issue(1L, List.of(7L));
+        verify(couponIssueService, times(1)).issue(2L, List.of(7L));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 요청의 여러 쿠폰이 실패해도 재시도는 요청 하나로 한 번만 기록한다.")
+    void issue_9() {
+        // Given
+        redisRepository.issueBundleRequest(7, List.of(1L, 2L), List.of(Integer.MAX_VALUE, Integer.MAX_VALUE), true);
+        doThrow(new IllegalStateException("connection"))
+                .when(couponIssueService).issue(anyLong(), anyList());
+        // When
+        sut.issue();
+        // Then
+        Assertions.assertEquals(List.of("1"), List.copyOf(redisRepository.hGetAll(getIssueRequestRetryKey()).values()));
+        Assertions.assertEquals(1, redisRepository.zCount(getIssueRequestDelayedKey(getIssueRequestQueueKey()), 0, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("남은 수량을 넘어서 발급하지 못한 유저의 요청만 dead letter로 옮긴다.")
+    void issue_10() {
+        // Given
+        int totalQuantity = Integer.MAX_VALUE;
+        redisRepository.issueRequest(1, 1, totalQuantity);
+        redisRepository.issueRequest(1, 2, totalQuantity);
+        doReturn(Map.of(2L, new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, "test")))
+                .when(couponIssueService).issue(1L, List.of(1L, 2L));
+        // When
+        sut.issue();
+        // Then
+        verify(couponIssueService, times(1)).issue(1L, List.of(1L, 2L));
+        verify(couponIssueService, never()).issue(1L, List.of(1L));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+        Assertions.assertEquals(1, redisRepository.hGetAll(getIssueRequestDeadLetterKey()).size());
+    }
+
+    @Test
+    @DisplayName("이미 발급된 유저의 요청은 이전 시도에서 처리된 요청이므로 dead letter로 옮기지 않는다.")
+    void issue_11() {
+        // Given
+        int totalQuantity = Integer.MAX_VALUE;
+        redisRepository.issueRequest(1, 1, totalQuantity);
+        doReturn(Map.of(1L, new CouponIssueException(ErrorCode.DUPLICATED_COUPON_ISSUE, "test")))
+                .when(couponIssueService).issue(1L, List.of(1L));
+        // When
+        sut.issue();
+        // Then
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+        Assertions.assertEquals(0, redisRepository.hGetAll(getIssueRequestDeadLetterKey()).size());
+        Assertions.assertEquals(0, redisRepository.zCount(getIssueRequestDelayedKey(getIssueRequestQueueKey()), 0, Double.MAX_VALUE));
+    }
+}
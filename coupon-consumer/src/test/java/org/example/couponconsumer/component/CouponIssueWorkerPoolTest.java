@@ -0,0 +1,38 @@
+package org.example.couponconsumer.component;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class CouponIssueWorkerPoolTest {
+
+    @Test
+    @DisplayName("동시에 실행되는 작업 수는 concurrency를 넘지 않는다.")
+    void invokeAll_1() throws InterruptedException {
+        // Given
+        CouponIssueWorkerPool sut = new CouponIssueWorkerPool(2, true);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        List<Runnable> tasks = IntStream.range(0, 10).<Runnable>mapToObj(i -> () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            completed.incrementAndGet();
+        }).toList();
+        // When
+        sut.invokeAll(tasks);
+        // Then
+        Assertions.assertEquals(10, completed.get());
+        Assertions.assertTrue(maxRunning.get() <= 2);
+        sut.destroy();
+    }
+}
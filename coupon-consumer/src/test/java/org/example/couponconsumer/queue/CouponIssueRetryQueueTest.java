@@ -0,0 +1,80 @@
+package org.example.couponconsumer.queue;
+
+import org.example.couponconsumer.TestConfig;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDeadLetterKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDelayedKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+
+@Import(CouponIssueRetryQueue.class)
+@TestPropertySource(properties = {
+        "coupon.consumer.retry.max-attempts=2",
+        "coupon.consumer.retry.backoff-ms=0"
+})
+class CouponIssueRetryQueueTest extends TestConfig {
+
+    static final String PAYLOAD = "{\"couponId\":1,\"userId\":1}";
+
+    @Autowired
+    CouponIssueRetryQueue sut;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    RedisRepository redisRepository;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("재시도 시각이 지난 요청은 발급 요청 큐로 되돌린다.")
+    void promote_1() {
+        // Given
+        sut.retry(PAYLOAD, new IllegalStateException("test"));
+        // When
+        sut.promote();
+        // Then
+        Assertions.assertEquals(List.of(PAYLOAD), redisRepository.lRange(getIssueRequestQueueKey(), 0, -1));
+        Assertions.assertEquals(0, redisRepository.zCount(getIssueRequestDelayedKey(getIssueRequestQueueKey()), 0, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 넘은 요청은 dead letter로 옮긴다.")
+    void retry_1() {
+        // When
+        sut.retry(PAYLOAD, new IllegalStateException("test"));
+        sut.retry(PAYLOAD, new IllegalStateException("test"));
+        sut.retry(PAYLOAD, new IllegalStateException("test"));
+        // Then
+        Assertions.assertEquals("IllegalStateException: test", redisRepository.hGet(getIssueRequestDeadLetterKey(), PAYLOAD));
+    }
+
+    @Test
+    @DisplayName("dead letter의 요청을 발급 요청 큐로 되돌린다.")
+    void requeueDeadLetter_1() {
+        // Given
+        sut.deadLetter(PAYLOAD, new IllegalStateException("test"));
+        // When
+        boolean result = sut.requeueDeadLetter(PAYLOAD);
+        // Then
+        Assertions.assertTrue(result);
+        Assertions.assertTrue(sut.deadLetters().isEmpty());
+        Assertions.assertEquals(List.of(PAYLOAD), redisRepository.lRange(getIssueRequestQueueKey(), 0, -1));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.couponconsumer.queue;
+
+import org.example.couponconsumer.TestConfig;
+import org.example.couponconsumer.component.CouponConsumerInstance;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestConsumerKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestProcessingKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+
+@Import({ReliableCouponIssueQueue.class, CouponConsumerInstance.class})
+@TestPropertySource(properties = {
+        "coupon.consumer.queue-mode=reliable",
+        "coupon.consumer.id=consumer-1",
+        "coupon.consumer.visibility-timeout-ms=30000"
+})
+class ReliableCouponIssueQueueTest extends TestConfig {
+
+    @Autowired
+    ReliableCouponIssueQueue sut;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    RedisRepository redisRepository;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("가져온 요청은 큐에서 처리 중 목록으로 옮겨진다.")
+    void fetch_1() {
+        // Given
+        redisRepository.rPushAll(getIssueRequestQueueKey(), List.of("a", "b", "c"));
+        // When
+        List<CouponIssueMessage> result = sut.fetch(getIssueRequestQueueKey(), 2);
+        // Then
+        Assertions.assertEquals(List.of("a", "b"), result.stream().map(CouponIssueMessage::payload).toList());
+        Assertions.assertEquals(List.of("c"), redisRepository.lRange(getIssueRequestQueueKey(), 0, -1));
+        Assertions.assertEquals(List.of("a", "b"), redisRepository.lRange(getIssueRequestProcessingKey(getIssueRequestQueueKey(), "consumer-1"), 0, -1));
+    }
+
+    @Test
+    @DisplayName("ack한 요청은 처리 중 목록에서 제거된다.")
+    void ack_1() {
+        // Given
+        redisRepository.rPushAll(getIssueRequestQueueKey(), List.of("a", "b"));
+        List<CouponIssueMessage> messages = sut.fetch(getIssueRequestQueueKey(), 2);
+        // When
+        sut.ack(getIssueRequestQueueKey(), messages);
+        // Then
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestProcessingKey(getIssueRequestQueueKey(), "consumer-1")));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+    }
+
+    @Test
+    @DisplayName("heartbeat가 끊긴 consumer의 처리 중 요청은 순서를 유지한 채 큐의 앞쪽으로 되돌린다.")
+    void reclaim_1() {
+        // Given
+        redisRepository.rPushAll(getIssueRequestQueueKey(), List.of("c"));
+        redisRepository.rPushAll(getIssueRequestProcessingKey(getIssueRequestQueueKey(), "consumer-2"), List.of("a", "b"));
+        redisRepository.zUpdate(getIssueRequestConsumerKey(), "consumer-2", System.currentTimeMillis() - 60_000);
+        // When
+        sut.reclaim();
+        // Then
+        Assertions.assertEquals(List.of("a", "b", "c"), redisRepository.lRange(getIssueRequestQueueKey(), 0, -1));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestProcessingKey(getIssueRequestQueueKey(), "consumer-2")));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.couponconsumer.queue;
+
+import org.example.couponconsumer.TestConfig;
+import org.example.couponconsumer.component.CouponConsumerInstance;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestStreamKey;
+
+@Import({StreamCouponIssueQueue.class, CouponConsumerInstance.class})
+@TestPropertySource(properties = {
+        "coupon.queue.transport=stream",
+        "coupon.consumer.id=consumer-1"
+})
+class StreamCouponIssueQueueTest extends TestConfig {
+
+    @Autowired
+    StreamCouponIssueQueue sut;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    RedisRepository redisRepository;
+
+    String streamKey = getIssueRequestStreamKey(getIssueRequestQueueKey());
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청이 성공하면 Stream에 적재되고, consumer group으로 가져올 수 있다.")
+    void fetch_1() {
+        // Given
+        redisRepository.issueRequest(1, 1, Integer.MAX_VALUE);
+        redisRepository.issueRequest(1, 2, Integer.MAX_VALUE);
+        // When
+        List<CouponIssueMessage> result = sut.fetch(streamKey, 10);
+        // Then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(0, sut.fetch(streamKey, 10).size());
+    }
+
+    @Test
+    @DisplayName("ack한 요청은 pending 목록과 Stream에서 제거된다.")
+    void ack_1() {
+        // Given
+        redisRepository.xAdd(streamKey, "a");
+        List<CouponIssueMessage> messages = sut.fetch(streamKey, 10);
+        // When
+        sut.ack(streamKey, messages);
+        // Then
+        Assertions.assertEquals(0L, redisTemplate.opsForStream().size(streamKey));
+        Assertions.assertTrue(redisRepository.xPending(streamKey, "coupon-consumer", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("다시 넣은 요청은 다음에 가져올 수 있다.")
+    void requeue_1() {
+        // Given
+        redisRepository.xAdd(streamKey, "a");
+        List<CouponIssueMessage> messages = sut.fetch(streamKey, 10);
+        // When
+        sut.requeue(streamKey, messages);
+        sut.ack(streamKey, messages);
+        // Then
+        List<CouponIssueMessage> result = sut.fetch(streamKey, 10);
+        Assertions.assertEquals(List.of("a"), result.stream().map(CouponIssueMessage::payload).toList());
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.couponcore.component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.service.CouponCacheService;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.example.couponcore.util.CouponRedisUtils.getCouponCacheChannel;
+
+/*
+쿠폰 정보가 바뀌면 coupon.cache.refresh 채널로 couponId 를 보내서 모든 인스턴스의 로컬 캐시를 갱신한다.
+발급은 주로 consumer 에서 완료되므로, 알림이 없으면 API 인스턴스는 로컬 캐시가 만료될 때까지 이전 쿠폰 정보를 사용한다.
+알림을 받은 인스턴스는 Redis 캐시의 값으로 로컬 캐시를 갱신한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponCacheSynchronizer implements MessageListener {
+
+    private final CouponCacheService couponCacheService;
+    private final RedisRepository redisRepository;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final String couponCacheChannel = getCouponCacheChannel();
+
+    @PostConstruct
+    void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(couponCacheChannel));
+    }
+
+    /* Redis 캐시를 갱신한 뒤에 호출해야 한다. */
+    public void publish(long couponId) {
+        redisRepository.publish(couponCacheChannel, String.valueOf(couponId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            couponCacheService.putCouponLocalCache(Long.parseLong(body));
+        } catch (RuntimeException e) {
+            log.error("쿠폰 로컬 캐시 갱신 실패 message: %s".formatted(body), e);
+        }
+    }
+}
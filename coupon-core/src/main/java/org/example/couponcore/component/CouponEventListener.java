@@ -15,6 +15,7 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class CouponEventListener {
 
     private final CouponCacheService couponCacheService;
+    private final CouponCacheSynchronizer couponCacheSynchronizer;
     private final Logger log = LoggerFactory.getLogger(this.getClass().getSimpleName());
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -22,6 +23,7 @@ public class CouponEventListener {
         log.info("issue complete. cache refresh start couponId: %s".formatted(event.couponId()));
         couponCacheService.putCouponCache(event.couponId());
         couponCacheService.putCouponLocalCache(event.couponId());
+        couponCacheSynchronizer.publish(event.couponId());
         log.info("issue complete. cache refresh end couponId: %s".formatted(event.couponId()));
 
     }
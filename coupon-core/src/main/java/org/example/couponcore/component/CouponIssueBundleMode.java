@@ -0,0 +1,6 @@
+package org.example.couponcore.component;
+
+public enum CouponIssueBundleMode {
+    ALL_OR_NOTHING, // 묶음의 쿠폰을 모두 발급할 수 있을 때만 발급한다
+    BEST_EFFORT     // 발급할 수 있는 쿠폰만 발급한다
+}
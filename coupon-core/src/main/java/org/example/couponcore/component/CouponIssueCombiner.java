@@ -0,0 +1,79 @@
+package org.example.couponcore.component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.service.CouponIssueService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.example.couponcore.exception.ErrorCode.DUPLICATED_COUPON_ISSUE;
+
+/*
+동기 발급 요청을 쿠폰별로 모아서 한 트랜잭션으로 발급한다. (flat combining, FlatCombiner)
+- 요청 스레드는 쿠폰별 대기열에 요청을 넣고, lock 을 잡은 스레드가 대기열의 요청을 묶음 하나만큼 모아서 발급한다.
+- 발급 트랜잭션이 실행되는 동안 들어온 요청이 다음 묶음이 되므로 별도의 대기 시간을 두지 않는다.
+- 쿠폰 row lock 과 DB 커넥션은 묶음마다 한 번만 사용하고, 나머지 스레드는 자신의 결과만 기다린다.
+- 묶음은 coupon.issue.strategy 와 관계없이 쿠폰 row lock 한 번으로 발급한다. (issueWithLock)
+  조건부 UPDATE 는 요청마다 row lock 을 잡는 시간을 줄이려는 전략인데, 묶음은 이미 lock 한 번을 여러 요청이 나눠 쓰므로 필요하지 않다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueCombiner {
+
+    private final CouponIssueService couponIssueService;
+    private FlatCombiner<Long, Long, Void> combiner;
+
+    @Value("${coupon.issue.combiner.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coupon.issue.combiner.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @PostConstruct
+    void init() {
+        combiner = new FlatCombiner<>(maxBatchSize, this::issueBatch);
+    }
+
+    public void issue(long couponId, long userId) {
+        if (!enabled) {
+            couponIssueService.issue(couponId, userId);
+            return;
+        }
+        combiner.combine(couponId, userId);
+    }
+
+    private void issueBatch(long couponId, List<FlatCombiner.Request<Long, Void>> batch) {
+        List<FlatCombiner.Request<Long, Void>> targets = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        for (FlatCombiner.Request<Long, Void> request : batch) {
+            if (userIds.add(request.value())) {
+                targets.add(request);
+            } else {
+                request.result().completeExceptionally(new CouponIssueException(DUPLICATED_COUPON_ISSUE, String.format("이미 발급 요청된 쿠폰입니다. user_id: %s, coupon_id: %s", request.value(), couponId)));
+            }
+        }
+        try {
+            Map<Long, CouponIssueException> failures = couponIssueService.issueWithLock(couponId, targets.stream().map(FlatCombiner.Request::value).toList());
+            for (FlatCombiner.Request<Long, Void> request : targets) {
+                CouponIssueException failure = failures.get(request.value());
+                if (failure == null) {
+                    request.result().complete(null);
+                } else {
+                    request.result().completeExceptionally(failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("묶음 발급 실패 couponId: %s, size: %s".formatted(couponId, targets.size()), e);
+            targets.forEach(request -> request.result().completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.couponcore.component;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestBitmapKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestCountKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestDelayedKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestOverflowKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQuotaKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestShardHashTag;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestSoldOutKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestStreamKey;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueStockLeaseKey;
+
+/*
+쿠폰 발급 요청 큐를 쿠폰 단위로 나눈다.
+같은 쿠폰의 요청은 항상 같은 파티션 큐에 쌓이므로, 파티션을 가진 consumer만 해당 쿠폰을 발급한다.
+파티션 수가 1이면 기존의 단일 큐({issue.request})를 사용한다.
+발급 요청 set 을 나눈 쿠폰(CouponIssueShardRouter)은 shard 마다 다른 파티션 큐에 쌓인다.
+shard 의 발급 요청 set, quota, overflow set 은 파티션 수와 관계없이 shard 마다 다른 hash tag 를 붙여서 shard 마다 다른 slot 에 저장한다.
+STREAM 전송 방식이면 같은 이름 뒤에 .stream을 붙인 Stream 키를 사용한다.
+큐 이름은 그 자체가 hash tag 이고, 쿠폰의 발급 요청 set 처럼 큐와 한 script 에서 쓰는 키에도 같은 hash tag 를 붙인다.
+ */
+@Component
+public class CouponIssuePartitioner {
+
+    @Getter
+    @Value("${coupon.queue.partition-count:1}")
+    private int partitionCount;
+
+    @Getter
+    @Value("${coupon.queue.transport:list}")
+    private CouponIssueQueueTransport transport;
+
+    public int partitionOf(long couponId) {
+        return Math.floorMod(couponId, partitionCount);
+    }
+
+    public String queueKey(int partition) {
+        String queueKey = hashTagOf(partition);
+        if (transport == CouponIssueQueueTransport.STREAM) {
+            return getIssueRequestStreamKey(queueKey);
+        }
+        return queueKey;
+    }
+
+    public String queueKeyOf(long couponId) {
+        return queueKey(partitionOf(couponId));
+    }
+
+    public String queueKeyOf(long couponId, int shard) {
+        return queueKey(partitionOf(couponId, shard));
+    }
+
+    public String issueRequestKeyOf(long couponId) {
+        return getIssueRequestKey(couponId, hashTagOf(partitionOf(couponId)));
+    }
+
+    public String issueRequestBitmapKeyOf(long couponId) {
+        return getIssueRequestBitmapKey(couponId, hashTagOf(partitionOf(couponId)));
+    }
+
+    public String issueRequestCountKeyOf(long couponId) {
+        return getIssueRequestCountKey(couponId, hashTagOf(partitionOf(couponId)));
+    }
+
+    public String issueRequestSoldOutKeyOf(long couponId) {
+        return getIssueRequestSoldOutKey(couponId, hashTagOf(partitionOf(couponId)));
+    }
+
+    public String issueRequestKeyOf(long couponId, int shard) {
+        return getIssueRequestKey(couponId, shard, getIssueRequestShardHashTag(couponId, shard));
+    }
+
+    public String issueRequestQuotaKeyOf(long couponId, int shard) {
+        return getIssueRequestQuotaKey(couponId, shard, getIssueRequestShardHashTag(couponId, shard));
+    }
+
+    public String issueRequestOverflowKeyOf(long couponId, int shard) {
+        return getIssueRequestOverflowKey(couponId, shard, getIssueRequestShardHashTag(couponId, shard));
+    }
+
+    public String delayedKey(int partition) {
+        return getIssueRequestDelayedKey(hashTagOf(partition));
+    }
+
+    public String delayedKeyOf(long couponId) {
+        return delayedKey(partitionOf(couponId));
+    }
+
+    public String issueStockLeaseKeyOf(long couponId) {
+        return getIssueStockLeaseKey(couponId, hashTagOf(partitionOf(couponId)));
+    }
+
+    private int partitionOf(long couponId, int shard) {
+        return Math.floorMod(couponId + shard, partitionCount);
+    }
+
+    private String hashTagOf(int partition) {
+        return partitionCount == 1 ? getIssueRequestQueueKey() : getIssueRequestQueueKey(partition);
+    }
+
+    public List<String> queueKeys() {
+        return IntStream.range(0, partitionCount)
+                .mapToObj(this::queueKey)
+                .toList();
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.couponcore.component;
+
+public enum CouponIssueQueueTransport {
+    LIST,   // Redis LIST (RPUSH / LRANGE)
+    STREAM  // Redis Stream (XADD / XREADGROUP)
+}
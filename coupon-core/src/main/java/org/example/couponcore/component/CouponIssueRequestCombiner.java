@@ -0,0 +1,52 @@
+package org.example.couponcore.component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+비동기 발급 요청을 쿠폰별로 모아서 발급 요청 스크립트 한 번으로 Redis 에 보낸다. (flat combining, FlatCombiner)
+스크립트가 실행되는 동안 들어온 요청이 다음 묶음이 되므로, 요청이 몰릴수록 요청당 Redis 호출 수가 줄어든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueRequestCombiner {
+
+    private final RedisRepository redisRepository;
+    private FlatCombiner<Long, IssueRequest, CouponIssueRequestCode> combiner;
+
+    @Value("${coupon.issue.lease.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @PostConstruct
+    void init() {
+        combiner = new FlatCombiner<>(maxBatchSize, this::issueBatch);
+    }
+
+    public CouponIssueRequestCode issue(long couponId, long userId, int totalQuantity) {
+        return combiner.combine(couponId, new IssueRequest(userId, totalQuantity));
+    }
+
+    /* 발급 수량은 쿠폰마다 같으므로 묶음의 첫 요청의 값을 사용한다. */
+    private void issueBatch(long couponId, List<FlatCombiner.Request<IssueRequest, CouponIssueRequestCode>> batch) {
+        try {
+            List<CouponIssueRequestCode> codes = redisRepository.issueRequests(couponId, batch.stream().map(request -> request.value().userId()).toList(), batch.get(0).value().totalQuantity());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(codes.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.error("묶음 발급 요청 실패 couponId: %s, size: %s".formatted(couponId, batch.size()), e);
+            batch.forEach(request -> request.result().completeExceptionally(e));
+        }
+    }
+
+    private record IssueRequest(long userId, int totalQuantity) {
+    }
+}
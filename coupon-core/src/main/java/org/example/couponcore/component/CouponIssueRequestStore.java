@@ -0,0 +1,6 @@
+package org.example.couponcore.component;
+
+public enum CouponIssueRequestStore {
+    SET,    // Redis SET (SISMEMBER / SADD / SCARD)
+    BITMAP  // Redis bitmap (GETBIT / SETBIT) + 요청 수 (INCR)
+}
@@ -0,0 +1,35 @@
+package org.example.couponcore.component;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+쿠폰별로 발급 요청한 유저를 기록할 구조를 정한다. (coupon.issue.bitmap)
+- SET: userId 를 문자열 member 로 저장한다. member 마다 수십 byte 를 사용한다.
+- BITMAP: userId 를 offset 으로 하는 bit 하나로 저장하고, 요청 수는 별도의 카운터로 관리한다.
+  가장 큰 userId / 8 byte 를 사용하므로 userId 가 촘촘한 서비스에서 참여자가 많은 쿠폰에 사용한다.
+  max-user-id 보다 큰 userId 는 bitmap 대신 set 에 기록해서 쿠폰 하나의 bitmap 이 max-user-id / 8 byte 를 넘지 않게 한다.
+발급 수량이 min-quantity 이상인 쿠폰(수량 제한이 없는 쿠폰 포함)에 BITMAP 을 사용하고, 발급 중에는 설정을 바꾸지 않는다.
+/v1 비동기 발급과 발급 요청 set 을 shard 로 나눈 쿠폰(CouponIssueShardRouter)은 항상 SET 을 사용한다.
+ */
+@Component
+public class CouponIssueRequestStoreSelector {
+
+    @Value("${coupon.issue.bitmap.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coupon.issue.bitmap.min-quantity:100000}")
+    private int minQuantity;
+
+    @Getter
+    @Value("${coupon.issue.bitmap.max-user-id:100000000}")
+    private long maxUserId;
+
+    public CouponIssueRequestStore storeOf(int totalIssueQuantity) {
+        if (enabled && totalIssueQuantity >= minQuantity) {
+            return CouponIssueRequestStore.BITMAP;
+        }
+        return CouponIssueRequestStore.SET;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.couponcore.component;
+
+import lombok.RequiredArgsConstructor;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+발급 수량이 min-quantity 이상인 쿠폰은 발급 요청 set 과 발급 수량을 shard-count 개의 키로 나눈다. (coupon.issue.hot-coupon)
+- 유저는 userId 의 hash 로 shard 가 정해지므로 중복 확인은 shard 안에서 끝난다.
+- 발급 수량은 shard 마다 나눠서 시작하고, shard 의 수량이 모두 요청되면 다른 shard 에 남은 수량으로 발급 요청을 적재한다.
+  shard 의 키는 서로 다른 slot 에 있을 수 있어서 수량을 옮기지 않고, 남은 수량이 있는 shard 의 script 하나에서 수량 확인과 적재를 끝낸다.
+  그동안 유저는 자기 shard 의 overflow set 에 남아서 다른 shard 에 중복으로 요청되지 않는다.
+- shard 의 키는 shard 마다 다른 hash tag 를 가지므로 파티션 수와 관계없이 shard 마다 다른 slot 에 저장되고, 발급 요청은 shard 마다 다른 파티션 큐에 적재된다.
+발급이 시작된 쿠폰의 shard 수가 바뀌면 중복 확인이 맞지 않으므로 발급 중에는 설정을 바꾸지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponIssueShardRouter {
+
+    private final RedisRepository redisRepository;
+
+    @Value("${coupon.issue.hot-coupon.shard-count:1}")
+    private int shardCount;
+
+    @Value("${coupon.issue.hot-coupon.min-quantity:10000}")
+    private int minQuantity;
+
+    public int shardCountOf(Integer totalQuantity) {
+        if (shardCount <= 1 || totalQuantity == null || totalQuantity < minQuantity) {
+            return 1;
+        }
+        return shardCount;
+    }
+
+    public int shardOf(long userId, int shardCount) {
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), shardCount);
+    }
+
+    public int quotaOf(int totalQuantity, int shardCount, int shard) {
+        return totalQuantity / shardCount + (shard < totalQuantity % shardCount ? 1 : 0);
+    }
+
+    /*
+    유저의 shard 에 발급 요청을 적재한다.
+    shard 의 수량이 모두 요청되었으면 다른 shard 의 남은 수량으로 적재하고, 모든 shard 에 수량이 없을 때만 쿠폰 소진을 알린다.
+    소진 알림은 소진 표시 키를 처음 기록한 요청만 보낸다. 다른 shard 에 적재하다 실패하면 유저를 overflow set 에서 지운다.
+    shard 의 quota 는 바뀌지 않고 발급 요청 set 은 줄지 않으므로, 한 번 수량이 없던 shard 는 다시 확인하지 않는다.
+     */
+    public CouponIssueRequestCode issueRequest(long couponId, long userId, int totalQuantity) {
+        int shards = shardCountOf(totalQuantity);
+        int shard = shardOf(userId, shards);
+        CouponIssueRequestCode code = redisRepository.issueShardRequest(couponId, shard, userId, quotaOf(totalQuantity, shards, shard));
+        if (code != CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
+            return code;
+        }
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int donor = (start + i) % shards;
+            if (donor == shard) {
+                continue;
+            }
+            try {
+                code = redisRepository.issueShardOverflowRequest(couponId, donor, userId, quotaOf(totalQuantity, shards, donor));
+            } catch (RuntimeException e) {
+                redisRepository.releaseShardOverflow(couponId, shard, userId);
+                throw e;
+            }
+            if (code != CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
+                return code;
+            }
+        }
+        redisRepository.releaseShardOverflow(couponId, shard, userId);
+        redisRepository.publishSoldOut(couponId);
+        return code;
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.couponcore.component;
+
+public enum CouponIssueStrategy {
+    PESSIMISTIC_LOCK,   // SELECT ... FOR UPDATE 로 쿠폰을 읽고 검증한 뒤 발급
+    CONDITIONAL_UPDATE  // 쿠폰을 읽지 않고 조건부 UPDATE 의 결과로 발급 여부를 결정
+}
@@ -0,0 +1,63 @@
+package org.example.couponcore.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.example.couponcore.util.CouponRedisUtils.getCouponSoldOutChannel;
+
+/*
+발급 수량이 모두 요청된 쿠폰을 인스턴스마다 기억해서, 이후 요청은 Redis 를 거치지 않고 거절한다.
+- 발급 요청 Lua 스크립트가 마지막 수량을 받거나 수량 초과로 거절할 때 coupon.sold-out 채널로 couponId 를 보낸다.
+- 알림을 놓친 인스턴스도 다음 요청에서 수량 초과 결과를 받으면 기록한다.
+발급 요청 set 이 초기화되거나 수량이 늘어날 수 있으므로 coupon.sold-out.ttl-seconds 가 지나면 다시 Redis 로 확인한다.
+ */
+@Slf4j
+@Component
+public class CouponSoldOutRegistry implements MessageListener {
+
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final Cache<Long, Boolean> soldOutCoupons;
+
+    public CouponSoldOutRegistry(RedisMessageListenerContainer redisMessageListenerContainer,
+                                 @Value("${coupon.sold-out.ttl-seconds:60}") long ttlSeconds) {
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.soldOutCoupons = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(getCouponSoldOutChannel()));
+    }
+
+    public boolean isSoldOut(long couponId) {
+        return soldOutCoupons.getIfPresent(couponId) != null;
+    }
+
+    public void markSoldOut(long couponId) {
+        soldOutCoupons.put(couponId, Boolean.TRUE);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            markSoldOut(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.error("읽을 수 없는 쿠폰 소진 알림입니다. message: %s".formatted(body));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.couponcore.component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+발급 수량이 큰 쿠폰의 남은 수량을 인스턴스마다 chunk-size 만큼 Redis 에서 빌려서 로컬에서 나눠준다. (coupon.issue.lease.enabled)
+- 빌린 수량이 남아있는 동안 발급 요청의 수량 확인은 로컬 카운터로 끝난다.
+- 빌린 수량을 모두 쓰면 다시 빌리고, 남은 수량이 없으면 lease-ms 동안 Redis 를 확인하지 않고 발급 수량 초과로 거절한다.
+- lease-ms 가 지나면 쓰지 않은 수량을 Redis 에 돌려준다. 인스턴스가 종료되지 않고 죽어도 lease 가 만료되면 다른 인스턴스가 빌릴 수 있다.
+쓰지 않은 수량은 빌린 lease 가 반환, 갱신되지 않았을 때만 로컬 카운터로 되돌린다. (lease 의 generation 으로 확인한다)
+빌린 수량에는 이미 발급 요청된 수량이 같이 계산되므로, lease 가 만료되기 전까지는 다른 인스턴스가 실제보다 적은 수량을 빌릴 수 있다.
+초과 발급은 발급 요청 스크립트의 수량 확인이 막는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponStockLeaseManager {
+
+    private final RedisRepository redisRepository;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    @Value("${coupon.issue.lease.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coupon.issue.lease.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${coupon.issue.lease.lease-ms:3000}")
+    private long leaseMillis;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /* 로컬에 빌린 수량이 없으면 Redis 에서 빌린다. 남은 수량이 없으면 empty */
+    public Optional<Permit> tryAcquire(long couponId, int totalQuantity) {
+        Lease lease = leases.computeIfAbsent(couponId, id -> new Lease());
+        Optional<Permit> permit = lease.tryAcquire(couponId);
+        if (permit.isPresent()) {
+            return permit;
+        }
+        synchronized (lease) {
+            permit = lease.tryAcquire(couponId);
+            if (permit.isPresent()) {
+                return permit;
+            }
+            long now = System.currentTimeMillis();
+            if (lease.emptyUntil > now) {
+                return Optional.empty();
+            }
+            int granted = redisRepository.leaseIssueStock(couponId, instanceId, totalQuantity, chunkSize, leaseMillis);
+            lease.renew(granted, now + leaseMillis);
+            return lease.tryAcquire(couponId);
+        }
+    }
+
+    /*
+    발급 요청이 거절되어 쓰지 않은 수량을 되돌린다.
+    수량을 빌린 lease 가 그 사이 반환되었거나 다시 빌려졌으면 새 lease 의 수량이 아니므로 버린다.
+     */
+    public void release(Permit permit) {
+        Lease lease = leases.get(permit.couponId());
+        if (lease == null) {
+            return;
+        }
+        synchronized (lease) {
+            if (lease.generation == permit.generation()) {
+                lease.remaining.incrementAndGet();
+            }
+        }
+    }
+
+    /* 발급 요청 스크립트가 수량 초과를 반환하면 로컬에 남은 수량도 버린다. */
+    public void exhaust(long couponId) {
+        Lease lease = leases.get(couponId);
+        if (lease != null) {
+            synchronized (lease) {
+                lease.reset(0);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.issue.lease.expire-interval-ms:1000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        leases.forEach((couponId, lease) -> {
+            if (lease.expiresAt <= now) {
+                returnLease(couponId, lease);
+            }
+        });
+    }
+
+    @PreDestroy
+    void releaseAll() {
+        leases.forEach(this::returnLease);
+    }
+
+    /* 다른 스레드가 같은 lease 를 갱신하지 않도록 lock 을 잡고 반환한다. */
+    private void returnLease(long couponId, Lease lease) {
+        synchronized (lease) {
+            lease.reset(0);
+            lease.expiresAt = Long.MAX_VALUE;
+            try {
+                redisRepository.releaseIssueStock(couponId, instanceId);
+            } catch (RuntimeException e) {
+                log.warn("쿠폰 수량 lease 반환 실패 couponId: %s".formatted(couponId), e);
+            }
+        }
+    }
+
+    /* lease 의 generation 에서 빌린 수량 하나 */
+    public record Permit(long couponId, long generation) {
+    }
+
+    /*
+    generation 은 lease 를 다시 빌리거나 버릴 때마다 lock 안에서 증가한다.
+    남은 수량을 바꾼 뒤 generation 을 증가시키므로, lock 없이 수량을 가져간 permit 은 수량을 가져온 lease 의 generation 이거나 그 이전 generation 이다.
+    이전 generation 으로 기록된 permit 은 되돌리지 않으므로 수량이 실제보다 많아지지 않는다.
+     */
+    private static class Lease {
+        private final AtomicInteger remaining = new AtomicInteger();
+        private volatile long generation;
+        private volatile long expiresAt = Long.MAX_VALUE;
+        private volatile long emptyUntil;
+
+        private Optional<Permit> tryAcquire(long couponId) {
+            long generation = this.generation;
+            int current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return Optional.empty();
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
+            return Optional.of(new Permit(couponId, generation));
+        }
+
+        private void reset(int remaining) {
+            this.remaining.set(remaining);
+            generation++;
+        }
+
+        private void renew(int granted, long expiresAt) {
+            reset(granted);
+            if (granted > 0) {
+                this.expiresAt = expiresAt;
+            } else {
+                this.expiresAt = Long.MAX_VALUE;
+                this.emptyUntil = expiresAt;
+            }
+        }
+    }
+}
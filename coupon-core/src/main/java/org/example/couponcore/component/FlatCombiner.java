@@ -0,0 +1,91 @@
+package org.example.couponcore.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/*
+같은 키의 요청을 대기열에 모아서 묶음으로 처리한다. (flat combining, CouponIssueCombiner 와 CouponIssueRequestCombiner 가 사용한다)
+- 요청 스레드는 키별 대기열에 요청을 넣고, lock 을 잡은 스레드가 대기열에서 maxBatchSize 개까지 꺼내 묶음 하나만 처리하고 lock 을 넘긴다.
+  한 스레드가 다른 스레드의 요청을 계속 처리하며 붙잡히지 않는다.
+- lock 을 기다리는 동안 다른 스레드가 자신의 요청을 처리했다면 바로 결과를 반환한다.
+- 대기열이 비면 키의 slot 을 지운다. 지운 slot 에 요청을 넣은 스레드도 같은 slot 의 lock 으로 자신의 요청을 직접 처리한다.
+handler 는 묶음의 모든 요청을 완료해야 한다. 예외를 던지거나 완료하지 않은 요청은 실패로 완료한다.
+ */
+public class FlatCombiner<K, T, R> {
+
+    private final Map<K, Slot<T, R>> slots = new ConcurrentHashMap<>();
+    private final int maxBatchSize;
+    private final BiConsumer<K, List<Request<T, R>>> handler;
+
+    public FlatCombiner(int maxBatchSize, BiConsumer<K, List<Request<T, R>>> handler) {
+        this.maxBatchSize = maxBatchSize;
+        this.handler = handler;
+    }
+
+    public R combine(K key, T value) {
+        Slot<T, R> slot = slots.computeIfAbsent(key, k -> new Slot<>());
+        Request<T, R> request = new Request<>(value, new CompletableFuture<>());
+        slot.requests.add(request);
+        while (!request.result().isDone()) {
+            slot.lock.lock();
+            try {
+                if (!request.result().isDone()) {
+                    handle(key, drain(slot));
+                }
+                if (slot.requests.isEmpty()) {
+                    slots.remove(key, slot);
+                }
+            } finally {
+                slot.lock.unlock();
+            }
+        }
+        return await(request);
+    }
+
+    private List<Request<T, R>> drain(Slot<T, R> slot) {
+        List<Request<T, R>> batch = new ArrayList<>();
+        Request<T, R> request;
+        while (batch.size() < maxBatchSize && (request = slot.requests.poll()) != null) {
+            batch.add(request);
+        }
+        return batch;
+    }
+
+    private void handle(K key, List<Request<T, R>> batch) {
+        try {
+            handler.accept(key, batch);
+        } catch (RuntimeException e) {
+            batch.forEach(request -> request.result().completeExceptionally(e));
+            return;
+        }
+        IllegalStateException incomplete = new IllegalStateException("묶음 처리 후 완료되지 않은 요청입니다. key: %s".formatted(key));
+        batch.forEach(request -> request.result().completeExceptionally(incomplete));
+    }
+
+    private R await(Request<T, R> request) {
+        try {
+            return request.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public record Request<T, R>(T value, CompletableFuture<R> result) {
+    }
+
+    private static class Slot<T, R> {
+        private final Queue<Request<T, R>> requests = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+}
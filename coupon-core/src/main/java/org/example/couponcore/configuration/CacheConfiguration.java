@@ -1,6 +1,7 @@
 package org.example.couponcore.configuration;
 
 import lombok.RequiredArgsConstructor;
+import org.example.couponcore.repository.redis.codec.CouponRedisEntitySerializer;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +21,7 @@ public class CacheConfiguration {
 
     private final RedisConnectionFactory redisConnectionFactory;
 
+    /* "coupon" 캐시는 타입 정보가 붙는 JSON 대신 CouponRedisEntitySerializer 로 저장한다. */
     @Bean
     @Primary
     public CacheManager redisCacheManager() {
@@ -29,6 +31,9 @@ public class CacheConfiguration {
                 .entryTtl(Duration.ofMinutes(30));
         return RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(redisConnectionFactory)
                 .cacheDefaults(redisCacheConfiguration)
+                .enableStatistics()
+                .withCacheConfiguration("coupon", redisCacheConfiguration
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new CouponRedisEntitySerializer())))
                 .build();
     }
 }
@@ -1,23 +1,53 @@
 package org.example.couponcore.configuration;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.couponcore.service.CouponCacheService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.List;
 
+/*
+캐시 이름을 고정해서 애플리케이션 시작 시 모든 캐시의 hit/miss 통계가 Micrometer (cache.gets 등) 에 등록되도록 한다.
+"coupon" 캐시는 CouponCacheSynchronizer 가 변경을 알려주므로 다른 캐시보다 길게 유지하고, LoadingCache 로 만들어서
+- 같은 키의 로딩은 인스턴스마다 한 번만 실행되고, 나머지 요청은 그 결과를 기다린다.
+- 읽히는 항목은 coupon-refresh-seconds 가 지나면 백그라운드에서 Redis 캐시의 값으로 갱신하고, 갱신하는 동안에는 기존 값을 반환한다.
+ */
 @Configuration
 public class LocalCacheConfiguration {
 
+    @Value("${coupon.cache.local.ttl-seconds:10}")
+    private long ttlSeconds;
+
+    @Value("${coupon.cache.local.coupon-ttl-seconds:300}")
+    private long couponTtlSeconds;
+
+    @Value("${coupon.cache.local.coupon-refresh-seconds:30}")
+    private long couponRefreshSeconds;
+
+    @Value("${coupon.cache.local.maximum-size:1000}")
+    private long maximumSize;
+
     @Bean
-    public CacheManager localCacheManager() {
+    public CacheManager localCacheManager(ObjectProvider<CouponCacheService> couponCacheService) {
         CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
         caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofSeconds(10))
-                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .recordStats()
         );
+        caffeineCacheManager.setCacheNames(List.of("couponStockSlotCount", "couponStockIssuedQuantity"));
+        caffeineCacheManager.registerCustomCache("coupon", Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(couponTtlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(couponRefreshSeconds))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(couponId -> couponCacheService.getObject().getCouponCache((Long) couponId)));
         return caffeineCacheManager;
     }
 
@@ -2,26 +2,64 @@ package org.example.couponcore.configuration;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.config.BaseConfig;
 import org.redisson.config.Config;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
 
 @Configuration
 public class RedisConfiguration {
 
-    @Value("${spring.data.redis.host}")
-    private String host;
-
-    @Value("${spring.data.redis.port}")
-    private int port;
-
+    /*
+    RedisTemplate(Lettuce)과 같은 spring.data.redis 설정으로 Redisson 을 구성한다.
+    - spring.data.redis.cluster.nodes 가 있으면 cluster
+    - spring.data.redis.sentinel.master 가 있으면 sentinel
+    - 둘 다 없으면 host, port 의 single server
+     */
     @Bean
-    RedissonClient redissonClient() {
+    RedissonClient redissonClient(RedisProperties redisProperties) {
         Config config = new Config();
-        String address = "redis://" + host + ":" + port;
-        config.useSingleServer().setAddress(address);
+        String scheme = redisProperties.getSsl().isEnabled() ? "rediss://" : "redis://";
+        RedisProperties.Cluster cluster = redisProperties.getCluster();
+        RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+        if (cluster != null && cluster.getNodes() != null && !cluster.getNodes().isEmpty()) {
+            authenticate(config.useClusterServers()
+                    .addNodeAddress(addressesOf(scheme, cluster.getNodes())), redisProperties);
+        } else if (sentinel != null && sentinel.getMaster() != null) {
+            authenticate(config.useSentinelServers()
+                    .setMasterName(sentinel.getMaster())
+                    .setSentinelPassword(sentinel.getPassword())
+                    .setDatabase(redisProperties.getDatabase())
+                    .addSentinelAddress(addressesOf(scheme, sentinel.getNodes())), redisProperties);
+        } else {
+            authenticate(config.useSingleServer()
+                    .setAddress(scheme + redisProperties.getHost() + ":" + redisProperties.getPort())
+                    .setDatabase(redisProperties.getDatabase()), redisProperties);
+        }
         return Redisson.create(config);
     }
 
+    @Bean
+    RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    private static void authenticate(BaseConfig<?> config, RedisProperties redisProperties) {
+        config.setUsername(redisProperties.getUsername());
+        config.setPassword(redisProperties.getPassword());
+    }
+
+    private static String[] addressesOf(String scheme, List<String> nodes) {
+        return nodes.stream()
+                .map(node -> scheme + node)
+                .toArray(String[]::new);
+    }
+
 }
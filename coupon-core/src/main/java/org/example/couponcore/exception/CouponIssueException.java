@@ -2,6 +2,10 @@ package org.example.couponcore.exception;
 
 import lombok.Getter;
 
+/*
+발급 요청이 몰리면 예외가 많이 만들어지므로 stack trace 를 수집하지 않는다.
+예외는 errorCode 와 message 로 구분한다.
+ */
 @Getter
 public class CouponIssueException extends RuntimeException{
 
@@ -9,6 +13,7 @@ public class CouponIssueException extends RuntimeException{
     private final String message;
 
     public CouponIssueException(ErrorCode errorCode, String message) {
+        super(null, null, false, false);
         this.errorCode =errorCode;
         this.message = message;
     }
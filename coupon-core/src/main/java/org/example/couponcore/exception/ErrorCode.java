@@ -8,7 +8,9 @@ public enum ErrorCode {
     INVALID_COUPON_ISSUE_DATE("쿠폰 발급 기간이 유효하지 않습니다."),
     COUPON_NOT_EXIST("존재하지 않는 쿠폰입니다."),
     DUPLICATED_COUPON_ISSUE("이미 발급한 쿠폰입니다."),
-    FAIL_COUPON_ISSUE_REQUEST("쿠폰 발급 요청에 실패했습니다.");
+    INCOMPLETE_COUPON_BUNDLE("함께 발급할 수 없는 쿠폰이 있어 발급하지 않았습니다."),
+    FAIL_COUPON_ISSUE_REQUEST("쿠폰 발급 요청에 실패했습니다."),
+    TOO_MANY_COUPON_ISSUE_REQUEST("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요.");
 
     public final String message;
 }
@@ -54,11 +54,41 @@ public class Coupon extends BaseTimeEntity {
     @Column(nullable = false)
     private LocalDateTime dateIssueEnd;
 
+    /*발급 수량을 나눠 저장할 slot 수 (coupon_stock_slots), null 이면 issuedQuantity 로 관리한다*/
+    private Integer stockSlotCount;
+
+    /*slot 에서 발급된 수량의 합, slot 을 사용하지 않으면 null*/
+    @Transient
+    private Integer stockIssuedQuantity;
+
+    public boolean isStockSharded() {
+        return stockSlotCount != null && stockSlotCount > 1;
+    }
+
+    public void applyStockIssuedQuantity(int stockIssuedQuantity) {
+        this.stockIssuedQuantity = stockIssuedQuantity;
+    }
+
+    /* slot 수를 바꾸면 그때까지의 발급 수량을 issuedQuantity 에 기록한다. */
+    public void changeStockSlotCount(Integer stockSlotCount, int issuedQuantity) {
+        this.stockSlotCount = stockSlotCount;
+        this.issuedQuantity = issuedQuantity;
+        this.stockIssuedQuantity = null;
+    }
+
+    public int currentIssuedQuantity() {
+        return stockIssuedQuantity == null ? issuedQuantity : stockIssuedQuantity;
+    }
+
     public boolean availableIssueQuantity() {
+        return availableIssueQuantity(1);
+    }
+
+    public boolean availableIssueQuantity(int quantity) {
         if (totalQuantity == null) {
             return true;
         }
-        return totalQuantity > issuedQuantity;
+        return totalQuantity - currentIssuedQuantity() >= quantity;
     }
 
     public boolean isIssueComplete() {
@@ -71,13 +101,26 @@ public class Coupon extends BaseTimeEntity {
         return dateIssueStart.isBefore(now) && dateIssueEnd.isAfter(now);
     }
 
+    /* slot 을 사용하는 쿠폰은 발급 수량을 coupon_stock_slots 에 따로 저장해야 한다. */
     public void issue() {
-        if(!availableIssueQuantity()) {
-            throw new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, String.format("발급 가능한 수량을 초과합니다. total: %s, issued: %s",totalQuantity, issuedQuantity));
+        checkIssuable(1);
+        if (stockIssuedQuantity != null) {
+            stockIssuedQuantity++;
+            return;
         }
+        issuedQuantity++;
+    }
+
+    public void checkIssuable(int quantity) {
+        if(!availableIssueQuantity(quantity)) {
+            throw new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, String.format("발급 가능한 수량을 초과합니다. total: %s, issued: %s, request: %s",totalQuantity, currentIssuedQuantity(), quantity));
+        }
+        checkIssueDate();
+    }
+
+    public void checkIssueDate() {
         if(!availableIssueDate()) {
             throw new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_DATE, String.format("발급 가능한 일자가 아닙니다. request: %s, issueStart: %s, issueEnd: %s",LocalDateTime.now(), dateIssueStart, dateIssueEnd));
         }
-        issuedQuantity++;
     }
 }
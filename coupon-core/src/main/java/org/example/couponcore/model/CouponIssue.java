@@ -14,9 +14,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Getter
 @Entity
-@Table(name = "coupon_issues")
+@Table(
+        name = "coupon_issues",
+        uniqueConstraints = @UniqueConstraint(name = CouponIssue.UNIQUE_KEY, columnNames = {"coupon_id", "user_id"})
+)
 public class CouponIssue extends BaseTimeEntity{
 
+    /* 같은 유저에게 같은 쿠폰을 한 번만 발급하는 유니크 인덱스 */
+    public static final String UNIQUE_KEY = "uk_coupon_issues_coupon_id_user_id";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
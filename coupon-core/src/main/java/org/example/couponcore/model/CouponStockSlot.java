@@ -0,0 +1,38 @@
+package org.example.couponcore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Entity
+@Table(
+        name = "coupon_stock_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_coupon_stock_slots_coupon_id_slot", columnNames = {"coupon_id", "slot"})
+)
+public class CouponStockSlot extends BaseTimeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long couponId;
+
+    /*slot 번호 (0 ~ slot 수 - 1)*/
+    @Column(nullable = false)
+    private int slot;
+
+    /*slot 에 나눠진 발급 최대 수량*/
+    @Column(nullable = false)
+    private int totalQuantity;
+
+    /*slot 에서 발급된 수량*/
+    @Column(nullable = false)
+    private int issuedQuantity;
+}
@@ -0,0 +1,68 @@
+package org.example.couponcore.repository.mysql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+IDENTITY 전략을 사용하는 CouponIssue는 Hibernate의 JDBC batch insert가 동작하지 않으므로
+여러 발급 내역을 하나의 multi-row INSERT 문으로 저장한다.
+(coupon_id, user_id) 유니크 인덱스에 걸리는 행은 ON DUPLICATE KEY UPDATE id = id 로 바꾸지 않고 건너뛴다.
+INSERT IGNORE 와 달리 유니크 인덱스 외의 오류(NOT NULL, 데이터 잘림 등)는 경고로 바뀌지 않고 예외로 던져진다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponIssueBulkRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /*
+    발급 내역을 저장하고, 이미 발급되어 저장하지 않은 유저를 반환한다.
+    중복이 없으면 multi-row INSERT 로 저장하고, 유니크 인덱스 위반으로 INSERT 가 실패한 묶음만 한 행씩 저장해서 이미 발급된 유저를 찾는다.
+    MySQL(InnoDB)과 H2 는 실패한 문장만 되돌리므로 같은 트랜잭션에서 이어서 저장할 수 있다.
+     */
+    public Set<Long> saveAllExceptIssued(long couponId, List<Long> userIds) {
+        Set<Long> issued = new HashSet<>();
+        for (int from = 0; from < userIds.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, userIds.size()));
+            try {
+                insert(couponId, chunk, false);
+            } catch (DuplicateKeyException e) {
+                for (Long userId : chunk) {
+                    if (insert(couponId, List.of(userId), true) == 0) {
+                        issued.add(userId);
+                    }
+                }
+            }
+        }
+        return issued;
+    }
+
+    private int insert(long couponId, List<Long> userIds, boolean skipDuplicates) {
+        String sql = "INSERT INTO coupon_issues (coupon_id, user_id, date_issued, date_created, date_updated) VALUES "
+                + String.join(", ", Collections.nCopies(userIds.size(), "(?, ?, ?, ?, ?)"))
+                + (skipDuplicates ? " ON DUPLICATE KEY UPDATE id = id" : "");
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> args = new ArrayList<>(userIds.size() * 5);
+        for (Long userId : userIds) {
+            args.add(couponId);
+            args.add(userId);
+            args.add(now);
+            args.add(now);
+            args.add(now);
+        }
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        /* 건너뛴 행은 MySQL(useAffectedRows=true)은 0, H2 는 2 로 세므로 어느 쪽이든 행 수와의 차이가 건너뛴 행 수이다. */
+        return userIds.size() - Math.abs(userIds.size() - updated);
+    }
+}
@@ -4,8 +4,11 @@ import jakarta.persistence.LockModeType;
 import org.example.couponcore.model.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -14,4 +17,44 @@ public interface CouponJpaRepository extends JpaRepository<Coupon, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT c FROM Coupon c WHERE c.id = :id")
     Optional<Coupon> findCouponWithLock(long id);
+
+    /* 발급 수량과 발급 기한을 조건으로 발급 수량을 증가시킨다. 조건을 만족하지 못하면 0을 반환한다. */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Coupon c
+            SET c.issuedQuantity = c.issuedQuantity + :quantity, c.dateUpdated = :now
+            WHERE c.id = :id
+            AND (c.totalQuantity IS NULL OR c.issuedQuantity + :quantity <= c.totalQuantity)
+            AND c.dateIssueStart < :now
+            AND c.dateIssueEnd > :now
+            """)
+    int increaseIssuedQuantity(long id, int quantity, LocalDateTime now);
+
+    /*
+    증가시킨 뒤에도 남은 수량이 있을 때만 발급 수량을 증가시킨다.
+    0 이면 남은 수량을 모두 채우는 증가이거나 발급할 수 없는 상태이므로 increaseIssuedQuantity 로 다시 시도한다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Coupon c
+            SET c.issuedQuantity = c.issuedQuantity + :quantity, c.dateUpdated = :now
+            WHERE c.id = :id
+            AND (c.totalQuantity IS NULL OR c.issuedQuantity + :quantity < c.totalQuantity)
+            AND c.dateIssueStart < :now
+            AND c.dateIssueEnd > :now
+            """)
+    int increaseIssuedQuantityUnderTotal(long id, int quantity, LocalDateTime now);
+
+    /* 확보했지만 발급하지 못한 수량을 되돌린다. */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Coupon c
+            SET c.issuedQuantity = c.issuedQuantity - :quantity, c.dateUpdated = :now
+            WHERE c.id = :id
+            """)
+    int decreaseIssuedQuantity(long id, int quantity, LocalDateTime now);
+
+    /* 발급 기한이 끝나지 않았고, to 이전에 발급이 시작되는 쿠폰 */
+    @Query("SELECT c.id FROM Coupon c WHERE c.dateIssueStart <= :to AND c.dateIssueEnd > :now")
+    List<Long> findIssuableCouponIds(LocalDateTime now, LocalDateTime to);
 }
@@ -0,0 +1,59 @@
+package org.example.couponcore.repository.mysql;
+
+import org.example.couponcore.model.CouponStockSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CouponStockSlotJpaRepository extends JpaRepository<CouponStockSlot, Long> {
+
+    /* slot 의 남은 수량이 충분할 때만 발급 수량을 증가시킨다. 수량이 부족하면 0을 반환한다. */
+    @Modifying
+    @Query("""
+            UPDATE CouponStockSlot s
+            SET s.issuedQuantity = s.issuedQuantity + :quantity, s.dateUpdated = :now
+            WHERE s.couponId = :couponId
+            AND s.slot = :slot
+            AND s.issuedQuantity + :quantity <= s.totalQuantity
+            """)
+    int increaseIssuedQuantity(long couponId, int slot, int quantity, LocalDateTime now);
+
+    /* 증가시킨 뒤에도 slot 에 수량이 남을 때만 발급 수량을 증가시킨다. 0 이면 slot 을 채우는 증가이거나 수량이 부족하다. */
+    @Modifying
+    @Query("""
+            UPDATE CouponStockSlot s
+            SET s.issuedQuantity = s.issuedQuantity + :quantity, s.dateUpdated = :now
+            WHERE s.couponId = :couponId
+            AND s.slot = :slot
+            AND s.issuedQuantity + :quantity < s.totalQuantity
+            """)
+    int increaseIssuedQuantityUnderTotal(long couponId, int slot, int quantity, LocalDateTime now);
+
+    /* slot 의 발급 수량이 quantity 이상일 때만 발급 수량을 감소시킨다. */
+    @Modifying
+    @Query("""
+            UPDATE CouponStockSlot s
+            SET s.issuedQuantity = s.issuedQuantity - :quantity, s.dateUpdated = :now
+            WHERE s.couponId = :couponId
+            AND s.slot = :slot
+            AND s.issuedQuantity >= :quantity
+            """)
+    int decreaseIssuedQuantity(long couponId, int slot, int quantity, LocalDateTime now);
+
+    /* 남은 수량이 quantity 이상인 slot 번호를 lock 없이 읽는다. */
+    @Query("SELECT s.slot FROM CouponStockSlot s WHERE s.couponId = :couponId AND s.issuedQuantity + :quantity <= s.totalQuantity ORDER BY s.slot")
+    List<Integer> findIssuableSlots(long couponId, int quantity);
+
+    @Query("SELECT COALESCE(SUM(s.issuedQuantity), 0) FROM CouponStockSlot s WHERE s.couponId = :couponId")
+    long sumIssuedQuantity(long couponId);
+
+    @Query("SELECT COUNT(s) FROM CouponStockSlot s WHERE s.couponId = :couponId AND s.issuedQuantity < s.totalQuantity")
+    long countIssuableSlots(long couponId);
+
+    @Modifying
+    @Query("DELETE FROM CouponStockSlot s WHERE s.couponId = :couponId")
+    int deleteByCouponId(long couponId);
+}
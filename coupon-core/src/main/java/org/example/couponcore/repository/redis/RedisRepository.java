@@ -1,34 +1,135 @@
 package org.example.couponcore.repository.redis;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
-import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.component.CouponIssueQueueTransport;
+import org.example.couponcore.component.CouponIssueRequestStore;
+import org.example.couponcore.component.CouponIssueRequestStoreSelector;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
 import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
 import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
-import static org.example.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import static org.example.couponcore.util.CouponRedisUtils.getCouponSoldOutChannel;
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestNotifyChannel;
 
 @Repository
-@RequiredArgsConstructor
 public class RedisRepository {
 
+    private static final String STREAM_PAYLOAD_FIELD = "payload";
+
     private final RedisTemplate<String, String> redisTemplate;
-    private final RedisScript<String> issueScript = issueRequestScript();
-    private final String issueRequestQueueKey = getIssueRequestQueueKey();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final CouponIssueRequestStoreSelector couponIssueRequestStoreSelector;
+    private final Map<CouponIssueRequestStore, String> issueRequestStoreFunctions;
+    private final Map<CouponIssueRequestStore, RedisScript<String>> issueScripts;
+    private final Map<CouponIssueRequestStore, RedisScript<String>> issueStreamScripts;
+    private final Map<CouponIssueRequestStore, RedisScript<String>> issueBatchScripts;
+    private final Map<CouponIssueRequestStore, RedisScript<String>> issueBatchStreamScripts;
+    private final Map<CouponIssueRequestStore, RedisScript<Long>> leaseIssueStockScripts;
+    private final RedisScript<String> issueShardScript = issueRequestShardScript();
+    private final RedisScript<String> issueBundleScript;
+    private final RedisScript<List> lMoveScript = lMoveScript();
+    private final RedisScript<Long> lMoveAllToHeadScript = lMoveAllToHeadScript();
+    private final RedisScript<Long> promoteDelayedScript = promoteDelayedScript();
+    private final RedisScript<Long> lRemAllScript = lRemAllScript();
+    private final RedisScript<Long> expireIfEqualsScript = expireIfEqualsScript();
+    private final RedisScript<Long> deleteIfEqualsScript = deleteIfEqualsScript();
+    private final String issueRequestNotifyChannel = getIssueRequestNotifyChannel();
+    private final String couponSoldOutChannel = getCouponSoldOutChannel();
+    private final String soldOutTtlSeconds;
+
+    /*
+    발급 요청 script 는 bitmap 의 최대 userId(coupon.issue.bitmap.max-user-id)를 넣어서 만든다.
+    쿠폰 소진 알림은 인스턴스의 소진 기록이 유지되는 coupon.sold-out.ttl-seconds 동안 한 번만 보낸다.
+     */
+    public RedisRepository(RedisTemplate<String, String> redisTemplate,
+                           CouponIssuePartitioner couponIssuePartitioner,
+                           CouponIssueRequestCodec couponIssueRequestCodec,
+                           CouponIssueRequestStoreSelector couponIssueRequestStoreSelector,
+                           @Value("${coupon.sold-out.ttl-seconds:60}") long soldOutTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.soldOutTtlSeconds = String.valueOf(soldOutTtlSeconds);
+        this.couponIssuePartitioner = couponIssuePartitioner;
+        this.couponIssueRequestCodec = couponIssueRequestCodec;
+        this.couponIssueRequestStoreSelector = couponIssueRequestStoreSelector;
+        this.issueRequestStoreFunctions = issueRequestStoreFunctions(couponIssueRequestStoreSelector.getMaxUserId());
+        this.issueScripts = scriptsOf(this::issueRequestScript);
+        this.issueStreamScripts = scriptsOf(this::issueRequestStreamScript);
+        this.issueBatchScripts = scriptsOf(this::issueRequestBatchScript);
+        this.issueBatchStreamScripts = scriptsOf(this::issueRequestBatchStreamScript);
+        this.leaseIssueStockScripts = scriptsOf(this::leaseIssueStockScript);
+        this.issueBundleScript = issueRequestBundleScript(couponIssueRequestStoreSelector.getMaxUserId());
+    }
 
     public Boolean zAdd(String key, String value, double score) {
         return redisTemplate.opsForZSet().addIfAbsent(key, value, score);
     }
 
+    public Boolean zUpdate(String key, String value, double score) {
+        return redisTemplate.opsForZSet().add(key, value, score);
+    }
+
+    public Set<String> zRangeByScore(String key, double min, double max) {
+        return redisTemplate.opsForZSet().rangeByScore(key, min, max);
+    }
+
+    public Long zRem(String key, String value) {
+        return redisTemplate.opsForZSet().remove(key, value);
+    }
+
+    public Long zCount(String key, double min, double max) {
+        return redisTemplate.opsForZSet().count(key, min, max);
+    }
+
+    public Boolean setIfAbsent(String key, String value, Duration timeout) {
+        return redisTemplate.opsForValue().setIfAbsent(key, value, timeout);
+    }
+
+    /* key의 값이 value와 같을 때만 만료 시간을 갱신한다. */
+    public boolean expireIfEquals(String key, String value, Duration timeout) {
+        Long result = redisTemplate.execute(expireIfEqualsScript, List.of(key), value, String.valueOf(timeout.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    /* key의 값이 value와 같을 때만 삭제한다. */
+    public boolean deleteIfEquals(String key, String value) {
+        Long result = redisTemplate.execute(deleteIfEqualsScript, List.of(key), value);
+        return result != null && result == 1L;
+    }
+
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
     public Long sAdd(String key, String value) {
         return redisTemplate.opsForSet().add(key, value);
     }
@@ -41,6 +142,30 @@ public class RedisRepository {
         return redisTemplate.opsForSet().isMember(key, value);
     }
 
+    public Long hIncrBy(String key, String field, long delta) {
+        return redisTemplate.opsForHash().increment(key, field, delta);
+    }
+
+    public void hSet(String key, String field, String value) {
+        redisTemplate.opsForHash().put(key, field, value);
+    }
+
+    public String hGet(String key, String field) {
+        return (String) redisTemplate.opsForHash().get(key, field);
+    }
+
+    public Map<String, String> hGetAll(String key) {
+        return redisTemplate.<String, String>opsForHash().entries(key);
+    }
+
+    public Long hLen(String key) {
+        return redisTemplate.opsForHash().size(key);
+    }
+
+    public Long hDel(String key, Object... fields) {
+        return redisTemplate.opsForHash().delete(key, fields);
+    }
+
     public Long rPush(String key, String value) {
         return redisTemplate.opsForList().rightPush(key, value);
     }
@@ -57,39 +182,778 @@ public class RedisRepository {
         return redisTemplate.opsForList().index(key, index);
     }
 
-    public void issueRequest(long couponId, long userId, int totalIssueQuantity) {
-        String issueRequestKey = getIssueRequestKey(couponId);
-        CouponIssueRequest couponIssueRequest = new CouponIssueRequest(couponId, userId);
+    public List<String> lRange(String key, long start, long end) {
+        return redisTemplate.opsForList().range(key, start, end);
+    }
+
+    public void lTrim(String key, long start, long end) {
+        redisTemplate.opsForList().trim(key, start, end);
+    }
+
+    public Long rPushAll(String key, List<String> values) {
+        if (values.isEmpty()) {
+            return 0L;
+        }
+        return redisTemplate.opsForList().rightPushAll(key, values);
+    }
+
+    /* 쿠폰 발급 요청을 전송 방식에 맞게 큐에 넣는다. */
+    public void pushIssueRequest(String queueKey, String value) {
+        boolean wasEmpty;
+        if (couponIssuePartitioner.getTransport() == CouponIssueQueueTransport.STREAM) {
+            xAdd(queueKey, value);
+            wasEmpty = redisTemplate.opsForStream().size(queueKey) == 1;
+        } else {
+            wasEmpty = rPush(queueKey, value) == 1;
+        }
+        if (wasEmpty) {
+            publish(issueRequestNotifyChannel, queueKey);
+        }
+    }
+
+    /*
+    재시도 시각(score)이 지난 요청을 count 개까지 재시도 대기열에서 지우고 발급 요청 큐에 적재한다. 옮긴 요청 수를 반환한다.
+    지우기와 적재를 script 하나로 실행해서 중간에 실패해도 요청이 사라지지 않는다. (재시도 대기열과 큐는 같은 hash tag 이다)
+     */
+    public long promoteDelayedIssueRequests(String delayedKey, String queueKey, long now, int count) {
+        Long promoted = redisTemplate.execute(
+                promoteDelayedScript,
+                List.of(delayedKey, queueKey),
+                String.valueOf(now),
+                String.valueOf(count),
+                couponIssuePartitioner.getTransport().name(),
+                issueRequestNotifyChannel
+        );
+        return promoted == null ? 0 : promoted;
+    }
+
+    /* 발급 요청 큐에 남은 요청 수 */
+    public long issueRequestQueueSize(String queueKey) {
+        Long size = couponIssuePartitioner.getTransport() == CouponIssueQueueTransport.STREAM
+                ? redisTemplate.opsForStream().size(queueKey)
+                : lSize(queueKey);
+        return size == null ? 0 : size;
+    }
+
+    /* 발급 요청 큐에서 가장 오래된 요청, 큐가 비어있으면 null */
+    public String peekIssueRequest(String queueKey) {
+        if (couponIssuePartitioner.getTransport() == CouponIssueQueueTransport.STREAM) {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .range(queueKey, Range.unbounded(), Limit.limit().count(1));
+            return records == null || records.isEmpty() ? null : streamPayload(records.get(0));
+        }
+        return lIndex(queueKey, 0);
+    }
+
+    /* 발급 요청 큐에서 가장 오래된 요청이 대기한 시간, 큐가 비어있거나 적재 시각이 없으면 0 */
+    public long issueRequestQueueAgeMillis(String queueKey, long now) {
+        String payload = peekIssueRequest(queueKey);
+        if (payload == null) {
+            return 0;
+        }
         try {
-            String code = redisTemplate.execute(
-                    issueScript,
-                    List.of(issueRequestKey, issueRequestQueueKey),
-                    String.valueOf(userId),
-                    String.valueOf(totalIssueQuantity),
-                    objectMapper.writeValueAsString(couponIssueRequest)
-            );
-            CouponIssueRequestCode.checkRequestResult(CouponIssueRequestCode.find(code));
-        } catch (JsonProcessingException e) {
-            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "input: %s".formatted(couponIssueRequest));
+            long requestedAt = couponIssueRequestCodec.decodeAll(payload).get(0).requestedAt();
+            return requestedAt == 0 ? 0 : Math.max(0, now - requestedAt);
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    /* Redis Cluster 에서는 SCAN 이 노드마다 실행되므로 모든 master 노드를 차례로 조회한다. */
+    public Set<String> scan(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+        Set<String> keys = new HashSet<>();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            if (connection instanceof RedisClusterConnection clusterConnection) {
+                for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+                    if (node.isMaster()) {
+                        scan(clusterConnection.scan(node, options), keys);
+                    }
+                }
+            } else {
+                scan(connection.keyCommands().scan(options), keys);
+            }
+            return null;
+        });
+        return keys;
+    }
+
+    private static void scan(Cursor<byte[]> cursor, Set<String> keys) {
+        try (cursor) {
+            cursor.forEachRemaining(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
+        }
+    }
+
+    public void publish(String channel, String message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    public RecordId xAdd(String key, String value) {
+        return redisTemplate.opsForStream().add(key, Map.of(STREAM_PAYLOAD_FIELD, value));
+    }
+
+    /* consumer group이 없으면 Stream과 함께 만든다. 이미 존재하면 false를 반환한다. */
+    public boolean xGroupCreate(String key, String group) {
+        try {
+            redisTemplate.opsForStream().createGroup(key, ReadOffset.from("0"), group);
+            return true;
+        } catch (RedisSystemException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<MapRecord<String, Object, Object>> xReadGroup(String key, String group, String consumer, int count) {
+        return redisTemplate.opsForStream().read(
+                Consumer.from(group, consumer),
+                StreamReadOptions.empty().count(count),
+                StreamOffset.create(key, ReadOffset.lastConsumed())
+        );
+    }
+
+    public Long xAck(String key, String group, List<String> recordIds) {
+        if (recordIds.isEmpty()) {
+            return 0L;
+        }
+        return redisTemplate.opsForStream().acknowledge(key, group, recordIds.toArray(String[]::new));
+    }
+
+    public Long xDel(String key, List<String> recordIds) {
+        if (recordIds.isEmpty()) {
+            return 0L;
+        }
+        return redisTemplate.opsForStream().delete(key, recordIds.toArray(String[]::new));
+    }
+
+    public PendingMessages xPending(String key, String group, long count) {
+        return redisTemplate.opsForStream().pending(key, group, Range.unbounded(), count);
+    }
+
+    public List<MapRecord<String, Object, Object>> xClaim(String key, String group, String consumer, Duration minIdleTime, List<String> recordIds) {
+        if (recordIds.isEmpty()) {
+            return List.of();
+        }
+        return redisTemplate.opsForStream().claim(key, group, consumer, minIdleTime,
+                recordIds.stream().map(RecordId::of).toArray(RecordId[]::new));
+    }
+
+    public static String streamPayload(MapRecord<String, Object, Object> record) {
+        return (String) record.getValue().get(STREAM_PAYLOAD_FIELD);
+    }
+
+    /* source의 앞에서 최대 count개를 꺼내 destination의 뒤에 원자적으로 옮긴다. */
+    @SuppressWarnings("unchecked")
+    public List<String> lMove(String sourceKey, String destinationKey, int count) {
+        return (List<String>) redisTemplate.execute(lMoveScript, List.of(sourceKey, destinationKey), String.valueOf(count));
+    }
+
+    /* source의 모든 값을 순서를 유지한 채 destination의 앞으로 원자적으로 옮긴다. */
+    public Long lMoveAllToHead(String sourceKey, String destinationKey) {
+        return redisTemplate.execute(lMoveAllToHeadScript, List.of(sourceKey, destinationKey));
+    }
+
+    public Long lRemAll(String key, List<String> values) {
+        if (values.isEmpty()) {
+            return 0L;
+        }
+        return redisTemplate.execute(lRemAllScript, List.of(key), values.toArray());
+    }
+
+    /* 발급 요청 스크립트를 미리 Redis 에 올려서 첫 요청이 EVALSHA 실패 후 EVAL 로 다시 보내지 않도록 한다. */
+    public void loadIssueRequestScripts() {
+        List<RedisScript<String>> scripts = new ArrayList<>(List.of(issueShardScript, issueBundleScript));
+        for (Map<CouponIssueRequestStore, RedisScript<String>> issueRequestScripts : List.of(issueScripts, issueStreamScripts, issueBatchScripts, issueBatchStreamScripts)) {
+            scripts.addAll(issueRequestScripts.values());
+        }
+        for (RedisScript<String> script : scripts) {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /*
+    마지막 수량이 발급 요청되거나 수량 초과로 거절되면 coupon.sold-out 채널로 couponId 를 보낸다.
+    소진 표시 키(SET NX)를 처음 기록한 요청만 보내므로, 소진 후 몰리는 요청마다 알림이 나가지 않는다.
+     */
+    public CouponIssueRequestCode issueRequest(long couponId, long userId, int totalIssueQuantity) {
+        CouponIssueRequestStore store = couponIssueRequestStoreSelector.storeOf(totalIssueQuantity);
+        String code = redisTemplate.execute(
+                (couponIssuePartitioner.getTransport() == CouponIssueQueueTransport.STREAM ? issueStreamScripts : issueScripts).get(store),
+                issueRequestKeys(couponId, store, couponIssuePartitioner.queueKeyOf(couponId), couponIssuePartitioner.issueRequestSoldOutKeyOf(couponId)),
+                String.valueOf(userId),
+                String.valueOf(totalIssueQuantity),
+                couponIssueRequestCodec.encode(new CouponIssueRequest(couponId, userId)),
+                issueRequestNotifyChannel,
+                String.valueOf(couponId),
+                couponSoldOutChannel,
+                soldOutTtlSeconds
+        );
+        return CouponIssueRequestCode.find(code);
+    }
+
+    /*
+    같은 쿠폰의 발급 요청 여러 건을 스크립트 한 번으로 처리하고, userIds 순서대로 결과를 반환한다.
+    요청마다 issueRequest 와 같은 중복, 수량 검사를 한다.
+     */
+    public List<CouponIssueRequestCode> issueRequests(long couponId, List<Long> userIds, int totalIssueQuantity) {
+        List<String> args = new ArrayList<>(5 + userIds.size() * 2);
+        args.add(String.valueOf(totalIssueQuantity));
+        args.add(issueRequestNotifyChannel);
+        args.add(String.valueOf(couponId));
+        args.add(couponSoldOutChannel);
+        args.add(soldOutTtlSeconds);
+        for (Long userId : userIds) {
+            args.add(String.valueOf(userId));
+            args.add(couponIssueRequestCodec.encode(new CouponIssueRequest(couponId, userId)));
+        }
+        CouponIssueRequestStore store = couponIssueRequestStoreSelector.storeOf(totalIssueQuantity);
+        String codes = redisTemplate.execute(
+                (couponIssuePartitioner.getTransport() == CouponIssueQueueTransport.STREAM ? issueBatchStreamScripts : issueBatchScripts).get(store),
+                issueRequestKeys(couponId, store, couponIssuePartitioner.queueKeyOf(couponId), couponIssuePartitioner.issueRequestSoldOutKeyOf(couponId)),
+                args.toArray()
+        );
+        List<CouponIssueRequestCode> results = new ArrayList<>(userIds.size());
+        for (int i = 0; i < codes.length(); i++) {
+            results.add(CouponIssueRequestCode.find(String.valueOf(codes.charAt(i))));
+        }
+        return results;
+    }
+
+    /*
+    발급 요청 set 을 나눈 쿠폰의 shard 하나에 발급 요청을 적재한다.
+    shard 의 발급 수량(quota)은 처음 요청할 때 initialQuota 로 정해지고 바뀌지 않는다.
+    shard 의 키는 큐와 다른 hash tag 라서 한 script 에서 쓸 수 없으므로, script 로 발급 요청을 기록한 뒤 큐에 적재한다.
+    적재에 실패하면 기록한 발급 요청을 지우고 예외를 던진다.
+    shard 의 수량이 모두 요청되면 유저를 shard 의 overflow set 에 넣고 '3' 을 반환한다. 쿠폰 소진 알림은 보내지 않는다. (다른 shard 에 수량이 남아있을 수 있다)
+    이미 overflow set 에 있는 유저는 다른 shard 에서 발급 요청 중이거나 발급 요청된 유저이므로 '2' 를 반환한다.
+     */
+    public CouponIssueRequestCode issueShardRequest(long couponId, int shard, long userId, int initialQuota) {
+        return issueShardRequest(couponId, shard, userId, initialQuota, true);
+    }
+
+    /* 유저의 shard 가 아닌 다른 shard 의 남은 수량으로 발급 요청을 적재한다. 수량이 없으면 '3' 을 반환하고 overflow set 은 건드리지 않는다. */
+    public CouponIssueRequestCode issueShardOverflowRequest(long couponId, int shard, long userId, int initialQuota) {
+        return issueShardRequest(couponId, shard, userId, initialQuota, false);
+    }
+
+    /* 다른 shard 에도 수량이 없으면 유저를 overflow set 에서 빼서 다음 요청이 중복으로 막히지 않게 한다. */
+    public void releaseShardOverflow(long couponId, int shard, long userId) {
+        redisTemplate.opsForSet().remove(couponIssuePartitioner.issueRequestOverflowKeyOf(couponId, shard), String.valueOf(userId));
+    }
+
+    private CouponIssueRequestCode issueShardRequest(long couponId, int shard, long userId, int initialQuota, boolean overflow) {
+        String issueRequestKey = couponIssuePartitioner.issueRequestKeyOf(couponId, shard);
+        CouponIssueRequestCode code = CouponIssueRequestCode.find(redisTemplate.execute(
+                issueShardScript,
+                List.of(
+                        issueRequestKey,
+                        couponIssuePartitioner.issueRequestQuotaKeyOf(couponId, shard),
+                        couponIssuePartitioner.issueRequestOverflowKeyOf(couponId, shard)
+                ),
+                String.valueOf(userId),
+                String.valueOf(initialQuota),
+                String.valueOf(overflow)
+        ));
+        if (code.isSuccess()) {
+            try {
+                pushIssueRequest(couponIssuePartitioner.queueKeyOf(couponId, shard), couponIssueRequestCodec.encode(new CouponIssueRequest(couponId, userId)));
+            } catch (RuntimeException e) {
+                redisTemplate.opsForSet().remove(issueRequestKey, String.valueOf(userId));
+                throw e;
+            }
+        }
+        return code;
+    }
+
+    /*
+    shard 발급 요청 script 가 수량 초과를 반환한 뒤 쿠폰 소진을 알린다.
+    issueRequest 의 script 와 같은 소진 표시 키(SET NX)를 처음 기록한 요청만 coupon.sold-out 채널로 couponId 를 보낸다.
+     */
+    public void publishSoldOut(long couponId) {
+        if (Boolean.TRUE.equals(setIfAbsent(couponIssuePartitioner.issueRequestSoldOutKeyOf(couponId), "1", Duration.ofSeconds(Long.parseLong(soldOutTtlSeconds))))) {
+            publish(couponSoldOutChannel, String.valueOf(couponId));
+        }
+    }
+
+    /*
+    인스턴스가 쿠폰의 남은 수량 중 chunk 만큼을 leaseMillis 동안 빌린다. 빌린 수량을 반환하고, 남은 수량이 없으면 0 을 반환한다.
+    남은 수량 = 발급 수량 - 발급 요청 수 - 다른 인스턴스가 빌린 수량 (만료된 lease 는 제외하고 지운다)
+     */
+    public int leaseIssueStock(long couponId, String instanceId, int totalIssueQuantity, int chunk, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        CouponIssueRequestStore store = couponIssueRequestStoreSelector.storeOf(totalIssueQuantity);
+        Long granted = redisTemplate.execute(
+                leaseIssueStockScripts.get(store),
+                issueRequestKeys(couponId, store, couponIssuePartitioner.issueStockLeaseKeyOf(couponId)),
+                String.valueOf(totalIssueQuantity),
+                instanceId,
+                String.valueOf(chunk),
+                String.valueOf(now),
+                String.valueOf(now + leaseMillis)
+        );
+        return granted == null ? 0 : granted.intValue();
+    }
+
+    public void releaseIssueStock(long couponId, String instanceId) {
+        hDel(couponIssuePartitioner.issueStockLeaseKeyOf(couponId), instanceId);
+    }
+
+    /*
+    한 유저의 여러 쿠폰 발급 요청을 script 한 번으로 확인하고 적재한다. 결과는 couponIds 순서대로 반환한다.
+    - 쿠폰마다 issueRequest 와 같은 중복, 수량 검사를 하고, 쿠폰마다 발급 요청 기록 방식(SET, BITMAP)을 따른다.
+    - allOrNothing 이면 한 쿠폰이라도 발급할 수 없을 때 아무것도 기록하지 않고, 발급할 수 있던 쿠폰은 '5' 를 반환한다.
+    - 발급 요청에 성공한 쿠폰들은 묶음 발급 요청 하나(CouponIssueRequestCodec v2)로 큐에 적재한다.
+    모든 쿠폰의 키가 한 script 에서 사용되므로 쿠폰들은 같은 파티션이어야 한다. (Redis Cluster 의 hash tag)
+     */
+    public List<CouponIssueRequestCode> issueBundleRequest(long userId, List<Long> couponIds, List<Integer> totalIssueQuantities, boolean allOrNothing) {
+        List<String> keys = new ArrayList<>(1 + couponIds.size() * 4);
+        List<String> args = new ArrayList<>(7 + couponIds.size() * 3);
+        keys.add(couponIssuePartitioner.queueKeyOf(couponIds.get(0)));
+        args.add(String.valueOf(userId));
+        args.add(allOrNothing ? "1" : "0");
+        args.add(couponIssueRequestCodec.encodeBundlePrefix(userId, System.currentTimeMillis()));
+        args.add(issueRequestNotifyChannel);
+        args.add(couponSoldOutChannel);
+        args.add(couponIssuePartitioner.getTransport().name());
+        args.add(soldOutTtlSeconds);
+        for (int i = 0; i < couponIds.size(); i++) {
+            long couponId = couponIds.get(i);
+            keys.add(couponIssuePartitioner.issueRequestKeyOf(couponId));
+            keys.add(couponIssuePartitioner.issueRequestBitmapKeyOf(couponId));
+            keys.add(couponIssuePartitioner.issueRequestCountKeyOf(couponId));
+            keys.add(couponIssuePartitioner.issueRequestSoldOutKeyOf(couponId));
+            args.add(String.valueOf(couponId));
+            args.add(String.valueOf(totalIssueQuantities.get(i)));
+            args.add(couponIssueRequestStoreSelector.storeOf(totalIssueQuantities.get(i)).name());
+        }
+        String codes = redisTemplate.execute(issueBundleScript, keys, args.toArray());
+        List<CouponIssueRequestCode> results = new ArrayList<>(couponIds.size());
+        for (int i = 0; i < codes.length(); i++) {
+            results.add(CouponIssueRequestCode.find(String.valueOf(codes.charAt(i))));
+        }
+        return results;
+    }
+
+    /* KEYS: 발급 요청 set, script 마다 쓰는 키들, BITMAP 이면 bitmap 과 요청 수 카운터 (issueRequestStoreFunctions 는 마지막 두 키를 사용한다) */
+    private List<String> issueRequestKeys(long couponId, CouponIssueRequestStore store, String... keys) {
+        List<String> issueRequestKeys = new ArrayList<>(List.of(couponIssuePartitioner.issueRequestKeyOf(couponId)));
+        issueRequestKeys.addAll(List.of(keys));
+        if (store == CouponIssueRequestStore.BITMAP) {
+            issueRequestKeys.add(couponIssuePartitioner.issueRequestBitmapKeyOf(couponId));
+            issueRequestKeys.add(couponIssuePartitioner.issueRequestCountKeyOf(couponId));
         }
+        return issueRequestKeys;
+    }
+
+    /*
+    발급 요청 script 에서 유저의 발급 요청 여부와 요청 수를 확인하는 함수
+    - requested(userId): 발급 요청한 유저인지
+    - addRequest(userId): 발급 요청한 유저로 기록한다
+    - requestedCount(): 발급 요청 수
+    BITMAP 은 userId 를 offset 으로 사용하고, 음수이거나 maxUserId 보다 큰 userId 는 KEYS[1] set 에 기록한다.
+    bitmap 은 가장 큰 offset 까지 메모리를 잡으므로 maxUserId 로 bitmap 의 크기(maxUserId / 8 byte)를 제한한다.
+     */
+    private static Map<CouponIssueRequestStore, String> issueRequestStoreFunctions(long maxUserId) {
+        return Map.of(
+                CouponIssueRequestStore.SET, """
+                        local function requested(userId)
+                            return redis.call('SISMEMBER', KEYS[1], userId) == 1
+                        end
+
+                        local function addRequest(userId)
+                            redis.call('SADD', KEYS[1], userId)
+                        end
+
+                        local function requestedCount()
+                            return redis.call('SCARD', KEYS[1])
+                        end
+
+                        """,
+                CouponIssueRequestStore.BITMAP, """
+                        local function bitOffset(userId)
+                            local offset = tonumber(userId)
+                            return offset >= 0 and offset <= %d
+                        end
+
+                        local function requested(userId)
+                            if bitOffset(userId) then
+                                return redis.call('GETBIT', KEYS[#KEYS - 1], userId) == 1
+                            end
+                            return redis.call('SISMEMBER', KEYS[1], userId) == 1
+                        end
+
+                        local function addRequest(userId)
+                            if bitOffset(userId) then
+                                redis.call('SETBIT', KEYS[#KEYS - 1], userId, 1)
+                            else
+                                redis.call('SADD', KEYS[1], userId)
+                            end
+                            redis.call('INCR', KEYS[#KEYS])
+                        end
+
+                        local function requestedCount()
+                            return tonumber(redis.call('GET', KEYS[#KEYS]) or '0')
+                        end
+
+                        """.formatted(maxUserId)
+        );
+    }
+
+    private static <T> Map<CouponIssueRequestStore, RedisScript<T>> scriptsOf(Function<CouponIssueRequestStore, RedisScript<T>> script) {
+        Map<CouponIssueRequestStore, RedisScript<T>> scripts = new EnumMap<>(CouponIssueRequestStore.class);
+        for (CouponIssueRequestStore store : CouponIssueRequestStore.values()) {
+            scripts.put(store, script.apply(store));
+        }
+        return scripts;
+    }
+
+    /*
+    KEYS[2] 는 큐, KEYS[3] 은 소진 표시 키
+    ARGV: userId, 발급 수량, payload, 알림 채널, couponId, 소진 채널, 소진 표시 키의 만료 시간(초)
+     */
+    private RedisScript<String> issueRequestScript(CouponIssueRequestStore store) {
+        String script = issueRequestStoreFunctions.get(store) + """
+                local function publishSoldOut()
+                    if redis.call('SET', KEYS[3], '1', 'NX', 'EX', ARGV[7]) then
+                        redis.call('PUBLISH', ARGV[6], ARGV[5])
+                    end
+                end
+
+                if requested(ARGV[1]) then
+                    return '2'
+                end
+                
+                if tonumber(ARGV[2]) > requestedCount() then
+                    addRequest(ARGV[1])
+                    if requestedCount() >= tonumber(ARGV[2]) then
+                        publishSoldOut()
+                    end
+                    if redis.call('RPUSH', KEYS[2], ARGV[3]) == 1 then
+                        redis.call('PUBLISH', ARGV[4], KEYS[2])
+                    end
+                    return '1'
+                end
+                
+                publishSoldOut()
+                return '3'
+                """;
+        return RedisScript.of(script, String.class);
     }
 
+    private RedisScript<String> issueRequestStreamScript(CouponIssueRequestStore store) {
+        String script = issueRequestStoreFunctions.get(store) + """
+                local function publishSoldOut()
+                    if redis.call('SET', KEYS[3], '1', 'NX', 'EX', ARGV[7]) then
+                        redis.call('PUBLISH', ARGV[6], ARGV[5])
+                    end
+                end
+
+                if requested(ARGV[1]) then
+                    return '2'
+                end
 
-    private RedisScript<String> issueRequestScript() {
+                if tonumber(ARGV[2]) > requestedCount() then
+                    addRequest(ARGV[1])
+                    if requestedCount() >= tonumber(ARGV[2]) then
+                        publishSoldOut()
+                    end
+                    redis.call('XADD', KEYS[2], '*', 'payload', ARGV[3])
+                    if redis.call('XLEN', KEYS[2]) == 1 then
+                        redis.call('PUBLISH', ARGV[4], KEYS[2])
+                    end
+                    return '1'
+                end
+
+                publishSoldOut()
+                return '3'
+                """;
+        return RedisScript.of(script, String.class);
+    }
+
+    /*
+    KEYS 는 issueRequestScript 와 같다.
+    ARGV: 발급 수량, 알림 채널, couponId, 소진 채널, 소진 표시 키의 만료 시간(초), 유저마다 (userId, payload)
+     */
+    private RedisScript<String> issueRequestBatchScript(CouponIssueRequestStore store) {
+        String script = issueRequestStoreFunctions.get(store) + """
+                local total = tonumber(ARGV[1])
+                local codes = {}
+                for i = 6, #ARGV, 2 do
+                    if requested(ARGV[i]) then
+                        codes[#codes + 1] = '2'
+                    elseif total > requestedCount() then
+                        addRequest(ARGV[i])
+                        if redis.call('RPUSH', KEYS[2], ARGV[i + 1]) == 1 then
+                            redis.call('PUBLISH', ARGV[2], KEYS[2])
+                        end
+                        codes[#codes + 1] = '1'
+                    else
+                        codes[#codes + 1] = '3'
+                    end
+                end
+
+                if requestedCount() >= total and redis.call('SET', KEYS[3], '1', 'NX', 'EX', ARGV[5]) then
+                    redis.call('PUBLISH', ARGV[4], ARGV[3])
+                end
+                return table.concat(codes)
+                """;
+        return RedisScript.of(script, String.class);
+    }
+
+    private RedisScript<String> issueRequestBatchStreamScript(CouponIssueRequestStore store) {
+        String script = issueRequestStoreFunctions.get(store) + """
+                local total = tonumber(ARGV[1])
+                local codes = {}
+                for i = 6, #ARGV, 2 do
+                    if requested(ARGV[i]) then
+                        codes[#codes + 1] = '2'
+                    elseif total > requestedCount() then
+                        addRequest(ARGV[i])
+                        redis.call('XADD', KEYS[2], '*', 'payload', ARGV[i + 1])
+                        if redis.call('XLEN', KEYS[2]) == 1 then
+                            redis.call('PUBLISH', ARGV[2], KEYS[2])
+                        end
+                        codes[#codes + 1] = '1'
+                    else
+                        codes[#codes + 1] = '3'
+                    end
+                end
+
+                if requestedCount() >= total and redis.call('SET', KEYS[3], '1', 'NX', 'EX', ARGV[5]) then
+                    redis.call('PUBLISH', ARGV[4], ARGV[3])
+                end
+                return table.concat(codes)
+                """;
+        return RedisScript.of(script, String.class);
+    }
+
+    /*
+    KEYS: shard 의 발급 요청 set, quota, overflow set (모두 shard 의 hash tag)
+    ARGV[3] 이 true 면 수량이 없을 때 유저를 overflow set(KEYS[3])에 넣는다.
+     */
+    private RedisScript<String> issueRequestShardScript() {
         String script = """
                 if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then
                     return '2'
                 end
-                
-                if tonumber(ARGV[2]) > redis.call('SCARD', KEYS[1]) then
+
+                redis.call('SET', KEYS[2], ARGV[2], 'NX')
+                if tonumber(redis.call('GET', KEYS[2])) > redis.call('SCARD', KEYS[1]) then
                     redis.call('SADD', KEYS[1], ARGV[1])
-                    redis.call('RPUSH', KEYS[2], ARGV[3])
                     return '1'
                 end
-                
+
+                if ARGV[3] == 'true' and redis.call('SADD', KEYS[3], ARGV[1]) == 0 then
+                    return '2'
+                end
                 return '3'
                 """;
         return RedisScript.of(script, String.class);
     }
 
+    /*
+    KEYS[1]: 큐, 쿠폰 i 의 키: KEYS[4i - 2] set, KEYS[4i - 1] bitmap, KEYS[4i] 요청 수 카운터, KEYS[4i + 1] 소진 표시 키
+    ARGV: userId, allOrNothing, payload 앞부분, 알림 채널, 소진 채널, transport, 소진 표시 키의 만료 시간(초), 쿠폰마다 (couponId, 발급 수량, 기록 방식)
+    기록 방식은 issueRequestStoreFunctions 와 같다.
+     */
+    private RedisScript<String> issueRequestBundleScript(long maxUserId) {
+        String script = """
+                local userId = ARGV[1]
+                local offset = tonumber(userId)
+                local bitOffset = offset >= 0 and offset <= %d
+                local coupons = (#ARGV - 7) / 3
+
+                local function bitmap(i)
+                    return ARGV[7 + i * 3] == 'BITMAP'
+                end
+
+                local function requested(i)
+                    if bitmap(i) and bitOffset then
+                        return redis.call('GETBIT', KEYS[4 * i - 1], userId) == 1
+                    end
+                    return redis.call('SISMEMBER', KEYS[4 * i - 2], userId) == 1
+                end
+
+                local function addRequest(i)
+                    if bitmap(i) and bitOffset then
+                        redis.call('SETBIT', KEYS[4 * i - 1], userId, 1)
+                    else
+                        redis.call('SADD', KEYS[4 * i - 2], userId)
+                    end
+                    if bitmap(i) then
+                        redis.call('INCR', KEYS[4 * i])
+                    end
+                end
+
+                local function publishSoldOut(i)
+                    if redis.call('SET', KEYS[4 * i + 1], '1', 'NX', 'EX', ARGV[7]) then
+                        redis.call('PUBLISH', ARGV[5], ARGV[5 + i * 3])
+                    end
+                end
+
+                local function requestedCount(i)
+                    if bitmap(i) then
+                        return tonumber(redis.call('GET', KEYS[4 * i]) or '0')
+                    end
+                    return redis.call('SCARD', KEYS[4 * i - 2])
+                end
+
+                local codes = {}
+                local issuable = true
+                for i = 1, coupons do
+                    if requested(i) then
+                        codes[i] = '2'
+                        issuable = false
+                    elseif tonumber(ARGV[6 + i * 3]) > requestedCount(i) then
+                        codes[i] = '1'
+                    else
+                        codes[i] = '3'
+                        issuable = false
+                        publishSoldOut(i)
+                    end
+                end
+
+                if ARGV[2] == '1' and not issuable then
+                    for i = 1, coupons do
+                        if codes[i] == '1' then
+                            codes[i] = '5'
+                        end
+                    end
+                    return table.concat(codes)
+                end
+
+                local issued = {}
+                for i = 1, coupons do
+                    if codes[i] == '1' then
+                        addRequest(i)
+                        issued[#issued + 1] = ARGV[5 + i * 3]
+                        if requestedCount(i) >= tonumber(ARGV[6 + i * 3]) then
+                            publishSoldOut(i)
+                        end
+                    end
+                end
+
+                if #issued > 0 then
+                    local payload = ARGV[3] .. table.concat(issued, ',')
+                    if ARGV[6] == 'STREAM' then
+                        redis.call('XADD', KEYS[1], '*', 'payload', payload)
+                        if redis.call('XLEN', KEYS[1]) == 1 then
+                            redis.call('PUBLISH', ARGV[4], KEYS[1])
+                        end
+                    elseif redis.call('RPUSH', KEYS[1], payload) == 1 then
+                        redis.call('PUBLISH', ARGV[4], KEYS[1])
+                    end
+                end
+                return table.concat(codes)
+                """.formatted(maxUserId);
+        return RedisScript.of(script, String.class);
+    }
+
+    /* lease hash: field = instanceId, value = "빌린 수량:만료 시각" */
+    private RedisScript<Long> leaseIssueStockScript(CouponIssueRequestStore store) {
+        String script = issueRequestStoreFunctions.get(store) + """
+                local now = tonumber(ARGV[4])
+                local leased = 0
+                local leases = redis.call('HGETALL', KEYS[2])
+                for i = 1, #leases, 2 do
+                    if leases[i] ~= ARGV[2] then
+                        local amount, expiresAt = string.match(leases[i + 1], '(%d+):(%d+)')
+                        if tonumber(expiresAt) > now then
+                            leased = leased + tonumber(amount)
+                        else
+                            redis.call('HDEL', KEYS[2], leases[i])
+                        end
+                    end
+                end
+
+                local granted = math.min(tonumber(ARGV[3]), tonumber(ARGV[1]) - requestedCount() - leased)
+                if granted <= 0 then
+                    redis.call('HDEL', KEYS[2], ARGV[2])
+                    return 0
+                end
+                redis.call('HSET', KEYS[2], ARGV[2], granted .. ':' .. ARGV[5])
+                redis.call('PEXPIRE', KEYS[2], tonumber(ARGV[5]) - now)
+                return granted
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    private RedisScript<List> lMoveScript() {
+        String script = """
+                local items = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+                if #items > 0 then
+                    redis.call('LTRIM', KEYS[1], #items, -1)
+                    redis.call('RPUSH', KEYS[2], unpack(items))
+                end
+                return items
+                """;
+        return RedisScript.of(script, List.class);
+    }
+
+    private RedisScript<Long> promoteDelayedScript() {
+        String script = """
+                local payloads = redis.call('ZRANGEBYSCORE', KEYS[1], 0, ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+                if #payloads == 0 then
+                    return 0
+                end
+                local size = 0
+                for i = 1, #payloads do
+                    redis.call('ZREM', KEYS[1], payloads[i])
+                    if ARGV[3] == 'STREAM' then
+                        redis.call('XADD', KEYS[2], '*', 'payload', payloads[i])
+                        size = redis.call('XLEN', KEYS[2])
+                    else
+                        size = redis.call('RPUSH', KEYS[2], payloads[i])
+                    end
+                end
+                if size == #payloads then
+                    redis.call('PUBLISH', ARGV[4], KEYS[2])
+                end
+                return #payloads
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    private RedisScript<Long> lMoveAllToHeadScript() {
+        String script = """
+                local items = redis.call('LRANGE', KEYS[1], 0, -1)
+                for i = #items, 1, -1 do
+                    redis.call('LPUSH', KEYS[2], items[i])
+                end
+                redis.call('DEL', KEYS[1])
+                return #items
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    private RedisScript<Long> lRemAllScript() {
+        String script = """
+                local removed = 0
+                for i = 1, #ARGV do
+                    removed = removed + redis.call('LREM', KEYS[1], 1, ARGV[i])
+                end
+                return removed
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    private RedisScript<Long> expireIfEqualsScript() {
+        String script = """
+                if redis.call('GET', KEYS[1]) == ARGV[1] then
+                    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                end
+                return 0
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    private RedisScript<Long> deleteIfEqualsScript() {
+        String script = """
+                if redis.call('GET', KEYS[1]) == ARGV[1] then
+                    return redis.call('DEL', KEYS[1])
+                end
+                return 0
+                """;
+        return RedisScript.of(script, Long.class);
+    }
 }
@@ -0,0 +1,112 @@
+package org.example.couponcore.repository.redis.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+발급 요청 큐의 payload 형식.
+- v1: "1:{couponId}:{userId}:{requestedAt}" (JSON 보다 짧고 Jackson 없이 읽고 쓴다)
+- v2: "2:{userId}:{requestedAt}:{couponId},{couponId},..." 한 유저의 여러 쿠폰 발급 요청 (묶음 발급)
+  쿠폰 목록은 묶음 발급 script 가 발급 요청에 성공한 쿠폰만 붙인다.
+- 이전 형식: CouponIssueRequest 의 JSON, '{' 로 시작한다.
+큐는 문자열로 저장되므로 바이너리 대신 구분자를 가진 10진수 문자열을 사용한다.
+형식을 바꿀 때는 버전을 올리고 이전 버전을 계속 읽을 수 있어야 한다. (큐, 재시도, dead letter 에 남아있는 요청)
+ */
+@Component
+public class CouponIssueRequestCodec {
+
+    private static final char VERSION_1 = '1';
+    private static final char VERSION_2 = '2';
+    private static final char DELIMITER = ':';
+    private static final char COUPON_DELIMITER = ',';
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public String encode(CouponIssueRequest request) {
+        return new StringBuilder(48)
+                .append(VERSION_1).append(DELIMITER)
+                .append(request.couponId()).append(DELIMITER)
+                .append(request.userId()).append(DELIMITER)
+                .append(request.requestedAt())
+                .toString();
+    }
+
+    /* 묶음 발급 요청의 쿠폰 목록 앞부분, 쿠폰 목록은 ','로 구분해서 뒤에 붙인다. */
+    public String encodeBundlePrefix(long userId, long requestedAt) {
+        return new StringBuilder(32)
+                .append(VERSION_2).append(DELIMITER)
+                .append(userId).append(DELIMITER)
+                .append(requestedAt).append(DELIMITER)
+                .toString();
+    }
+
+    /* payload 의 모든 발급 요청, 묶음 발급 요청이 아니면 요청 하나를 반환한다. */
+    public List<CouponIssueRequest> decodeAll(String payload) {
+        if (payload != null && !payload.isEmpty() && payload.charAt(0) == VERSION_2) {
+            return decodeV2(payload);
+        }
+        return List.of(decode(payload));
+    }
+
+    /* 읽을 수 없는 payload 는 IllegalArgumentException 을 던진다. 묶음 발급 요청은 decodeAll 로 읽는다. */
+    public CouponIssueRequest decode(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            throw new IllegalArgumentException("빈 발급 요청입니다.");
+        }
+        char version = payload.charAt(0);
+        if (version == VERSION_1) {
+            return decodeV1(payload);
+        }
+        if (version == '{') {
+            return decodeJson(payload);
+        }
+        throw new IllegalArgumentException("지원하지 않는 발급 요청 형식입니다. payload: %s".formatted(payload));
+    }
+
+    private CouponIssueRequest decodeV1(String payload) {
+        int couponIdEnd = payload.indexOf(DELIMITER, 2);
+        int userIdEnd = couponIdEnd < 0 ? -1 : payload.indexOf(DELIMITER, couponIdEnd + 1);
+        if (payload.length() < 2 || payload.charAt(1) != DELIMITER || userIdEnd < 0) {
+            throw new IllegalArgumentException("읽을 수 없는 발급 요청입니다. payload: %s".formatted(payload));
+        }
+        return new CouponIssueRequest(
+                Long.parseLong(payload, 2, couponIdEnd, 10),
+                Long.parseLong(payload, couponIdEnd + 1, userIdEnd, 10),
+                Long.parseLong(payload, userIdEnd + 1, payload.length(), 10)
+        );
+    }
+
+    private List<CouponIssueRequest> decodeV2(String payload) {
+        int userIdEnd = payload.indexOf(DELIMITER, 2);
+        int requestedAtEnd = userIdEnd < 0 ? -1 : payload.indexOf(DELIMITER, userIdEnd + 1);
+        if (payload.length() < 2 || payload.charAt(1) != DELIMITER || requestedAtEnd < 0 || requestedAtEnd == payload.length() - 1) {
+            throw new IllegalArgumentException("읽을 수 없는 발급 요청입니다. payload: %s".formatted(payload));
+        }
+        long userId = Long.parseLong(payload, 2, userIdEnd, 10);
+        long requestedAt = Long.parseLong(payload, userIdEnd + 1, requestedAtEnd, 10);
+        List<CouponIssueRequest> requests = new ArrayList<>();
+        int start = requestedAtEnd + 1;
+        while (start <= payload.length()) {
+            int end = payload.indexOf(COUPON_DELIMITER, start);
+            if (end < 0) {
+                end = payload.length();
+            }
+            requests.add(new CouponIssueRequest(Long.parseLong(payload, start, end, 10), userId, requestedAt));
+            start = end + 1;
+        }
+        return requests;
+    }
+
+    private CouponIssueRequest decodeJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, CouponIssueRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("읽을 수 없는 발급 요청입니다. payload: %s".formatted(payload), e);
+        }
+    }
+}
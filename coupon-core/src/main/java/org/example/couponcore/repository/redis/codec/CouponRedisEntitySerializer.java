@@ -0,0 +1,87 @@
+package org.example.couponcore.repository.redis.codec;
+
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/*
+"coupon" 캐시의 CouponRedisEntity 를 고정 길이 바이너리로 저장한다.
+- v1: version(1) | flags(1) | id(8) | couponType(1) | totalQuantity(4) | dateIssueStart(12) | dateIssueEnd(12)
+  flags: 0x1 발급 가능 수량 존재, 0x2 totalQuantity 존재
+  일시는 LocalDateTime 을 그대로 옮기기 위해 UTC 기준 epoch second(8) 와 nano(4) 로 저장한다.
+- 이전 형식: GenericJackson2JsonRedisSerializer 의 JSON, '{' 로 시작한다.
+ */
+public class CouponRedisEntitySerializer implements RedisSerializer<Object> {
+
+    private static final byte VERSION_1 = 1;
+    private static final int VERSION_1_SIZE = 1 + 1 + 8 + 1 + 4 + 12 + 12;
+    private static final byte AVAILABLE_ISSUE_QUANTITY = 0x1;
+    private static final byte HAS_TOTAL_QUANTITY = 0x2;
+    private static final CouponType[] COUPON_TYPES = CouponType.values();
+
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof CouponRedisEntity coupon)) {
+            return legacySerializer.serialize(value);
+        }
+        byte flags = 0;
+        if (coupon.availableIssueQuantity()) flags |= AVAILABLE_ISSUE_QUANTITY;
+        if (coupon.totalQuantity() != null) flags |= HAS_TOTAL_QUANTITY;
+        ByteBuffer buffer = ByteBuffer.allocate(VERSION_1_SIZE)
+                .put(VERSION_1)
+                .put(flags)
+                .putLong(coupon.id())
+                .put((byte) coupon.couponType().ordinal())
+                .putInt(coupon.totalQuantity() == null ? 0 : coupon.totalQuantity());
+        putDateTime(buffer, coupon.dateIssueStart());
+        putDateTime(buffer, coupon.dateIssueEnd());
+        return buffer.array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSION_1) {
+            return legacySerializer.deserialize(bytes);
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            byte flags = buffer.get();
+            long id = buffer.getLong();
+            CouponType couponType = COUPON_TYPES[buffer.get()];
+            int totalQuantity = buffer.getInt();
+            return new CouponRedisEntity(
+                    id,
+                    couponType,
+                    (flags & HAS_TOTAL_QUANTITY) != 0 ? totalQuantity : null,
+                    (flags & AVAILABLE_ISSUE_QUANTITY) != 0,
+                    getDateTime(buffer),
+                    getDateTime(buffer)
+            );
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("쿠폰 캐시를 읽을 수 없습니다.", e);
+        }
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+}
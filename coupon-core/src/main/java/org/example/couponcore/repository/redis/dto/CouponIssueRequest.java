@@ -1,4 +1,11 @@
 package org.example.couponcore.repository.redis.dto;
 
-public record CouponIssueRequest(long couponId, long userId) {
+/*
+requestedAt: 발급 요청이 큐에 적재된 시각 (epoch millis), 큐의 지연 시간 측정에 사용한다.
+ */
+public record CouponIssueRequest(long couponId, long userId, long requestedAt) {
+
+    public CouponIssueRequest(long couponId, long userId) {
+        this(couponId, userId, System.currentTimeMillis());
+    }
 }
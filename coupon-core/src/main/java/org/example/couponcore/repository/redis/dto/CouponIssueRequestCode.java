@@ -1,29 +1,37 @@
 package org.example.couponcore.repository.redis.dto;
 
-import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.exception.ErrorCode;
 
+/*
+발급 요청의 결과.
+발급 요청은 대부분 수량 소진이나 중복으로 거절되므로, 거절은 예외를 만들지 않고 이 결과로 컨트롤러까지 전달한다.
+ */
 public enum CouponIssueRequestCode {
-    SUCCESS(1),
-    DUPLICATED_COUPON_ISSUE(2),
-    INVALID_COUPON_ISSUE_QUANTITY(3);
-    CouponIssueRequestCode(int code) {
+    SUCCESS(1, null),
+    DUPLICATED_COUPON_ISSUE(2, ErrorCode.DUPLICATED_COUPON_ISSUE),
+    INVALID_COUPON_ISSUE_QUANTITY(3, ErrorCode.INVALID_COUPON_ISSUE_QUANTITY),
+    INVALID_COUPON_ISSUE_DATE(4, ErrorCode.INVALID_COUPON_ISSUE_DATE),
+    INCOMPLETE_COUPON_BUNDLE(5, ErrorCode.INCOMPLETE_COUPON_BUNDLE); // 묶음 발급(ALL_OR_NOTHING)에서 다른 쿠폰 때문에 발급하지 않은 쿠폰
+
+    /* 발급 요청 스크립트가 반환하는 결과 코드 */
+    public final int code;
+    public final ErrorCode errorCode;
+
+    CouponIssueRequestCode(int code, ErrorCode errorCode) {
+        this.code = code;
+        this.errorCode = errorCode;
     }
 
-    public static CouponIssueRequestCode find(String code) {
-        int codeValue = Integer.parseInt(code);
-        if(codeValue == 1) return SUCCESS;
-        if(codeValue == 2) return DUPLICATED_COUPON_ISSUE;
-        if(codeValue == 3) return INVALID_COUPON_ISSUE_QUANTITY;
-        throw new IllegalArgumentException("존재하지 않는 코드입니다. %s".formatted(code));
+    public boolean isSuccess() {
+        return this == SUCCESS;
     }
 
-    public static void checkRequestResult(CouponIssueRequestCode code) {
-        if(code == INVALID_COUPON_ISSUE_QUANTITY) {
-            throw new CouponIssueException(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, "발급 가능한 수량을 초과합니다.");
-        }
-        if(code == DUPLICATED_COUPON_ISSUE) {
-            throw new CouponIssueException(ErrorCode.DUPLICATED_COUPON_ISSUE, "이미 발급 요청된 쿠폰입니다.");
+    public static CouponIssueRequestCode find(String code) {
+        for (CouponIssueRequestCode value : values()) {
+            if (String.valueOf(value.code).equals(code)) {
+                return value;
+            }
         }
+        throw new IllegalArgumentException("존재하지 않는 코드입니다. %s".formatted(code));
     }
 }
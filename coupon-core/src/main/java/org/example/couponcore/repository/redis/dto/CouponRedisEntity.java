@@ -43,13 +43,25 @@ public record CouponRedisEntity(
         return dateIssueStart.isBefore(now) && dateIssueEnd.isAfter(now);
     }
 
-    public void checkIssuableCoupon() {
+    /* 발급 가능 여부를 예외 없이 반환한다. */
+    public CouponIssueRequestCode issuableCode() {
         if(!availableIssueQuantity) {
+            return CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY;
+        }
+        if (!availableIssueDate()) {
+            return CouponIssueRequestCode.INVALID_COUPON_ISSUE_DATE;
+        }
+        return CouponIssueRequestCode.SUCCESS;
+    }
+
+    public void checkIssuableCoupon() {
+        CouponIssueRequestCode code = issuableCode();
+        if(code == CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
             throw new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY,
                     String.format("모든 발급 수량이 소진되었습니다. couponId: %s", id)
             );
         }
-        if (!availableIssueDate()) {
+        if (code == CouponIssueRequestCode.INVALID_COUPON_ISSUE_DATE) {
             throw new CouponIssueException(INVALID_COUPON_ISSUE_DATE,
                     String.format("발급 가능한 일자가 아닙니다. couponId: %s issueStart: %s issueEnd: %s", id, dateIssueStart, dateIssueEnd)
             );
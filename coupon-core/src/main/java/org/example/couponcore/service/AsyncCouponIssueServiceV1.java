@@ -1,19 +1,16 @@
 package org.example.couponcore.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.couponcore.component.CouponIssuePartitioner;
 import org.example.couponcore.component.DistributeLockExecutor;
-import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.model.Coupon;
 import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
 import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
 import org.example.couponcore.repository.redis.dto.CouponRedisEntity;
 import org.springframework.stereotype.Service;
 
 import static org.example.couponcore.exception.ErrorCode.*;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
 
 @Service
 @RequiredArgsConstructor
@@ -23,8 +20,9 @@ public class AsyncCouponIssueServiceV1 {
     private final CouponCacheService couponCacheService;
 
     private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
     private final DistributeLockExecutor distributeLockExecutor;
 
     public void issue(long couponId, long userId) {
@@ -38,13 +36,8 @@ public class AsyncCouponIssueServiceV1 {
     }
 
     private void issueRequest(long couponId, long userId) {
-        CouponIssueRequest issueRequest = new CouponIssueRequest(couponId, userId);
-        try {
-            String value = objectMapper.writeValueAsString(issueRequest);
-            redisRepository.sAdd(getIssueRequestKey(couponId), String.valueOf(userId));
-            redisRepository.rPush(getIssueRequestQueueKey(), value);
-        } catch (JsonProcessingException e) {
-            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "input: %s".formatted(issueRequest));
-        }
+        String value = couponIssueRequestCodec.encode(new CouponIssueRequest(couponId, userId));
+        redisRepository.sAdd(couponIssuePartitioner.issueRequestKeyOf(couponId), String.valueOf(userId));
+        redisRepository.pushIssueRequest(couponIssuePartitioner.queueKeyOf(couponId), value);
     }
 }
@@ -1,37 +1,162 @@
 package org.example.couponcore.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.example.couponcore.component.DistributeLockExecutor;
+import org.example.couponcore.component.CouponIssueBundleMode;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.component.CouponIssueRequestCombiner;
+import org.example.couponcore.component.CouponIssueShardRouter;
+import org.example.couponcore.component.CouponSoldOutRegistry;
+import org.example.couponcore.component.CouponStockLeaseManager;
 import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.repository.redis.RedisRepository;
-import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
 import org.example.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.example.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
 
 @Service
 @RequiredArgsConstructor
 public class AsyncCouponIssueServiceV2 {
 
     private final CouponCacheService couponCacheService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final CouponStockLeaseManager couponStockLeaseManager;
+    private final CouponIssueRequestCombiner couponIssueRequestCombiner;
+    private final CouponIssueShardRouter couponIssueShardRouter;
+    private final CouponIssuePartitioner couponIssuePartitioner;
     private final RedisRepository redisRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public void issue(long couponId, long userId) {
+    @Value("${coupon.issue.bundle.max-size:20}")
+    private int maxBundleSize;
+
+    /*
+    수량 소진, 중복, 발급 기한 외의 요청은 예외 없이 결과 코드로 반환한다.
+    발급 수량이 모두 요청된 쿠폰은 Redis 를 거치지 않고 거절한다.
+     */
+    public CouponIssueRequestCode issue(long couponId, long userId) {
+        if (couponSoldOutRegistry.isSoldOut(couponId)) {
+            return CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY;
+        }
         CouponRedisEntity coupon = couponCacheService.getCouponLocalCache(couponId);
-        coupon.checkIssuableCoupon();
-        issueRequest(couponId, userId, coupon.totalQuantity());
+        CouponIssueRequestCode code = coupon.issuableCode();
+        if (!code.isSuccess()) {
+            return code;
+        }
+        if (couponStockLeaseManager.isEnabled() && coupon.totalQuantity() != null
+                && couponIssueShardRouter.shardCountOf(coupon.totalQuantity()) == 1) {
+            return issueWithLease(couponId, userId, coupon.totalQuantity());
+        }
+        code = issueRequest(couponId, userId, coupon.totalQuantity());
+        if (code == CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
+            couponSoldOutRegistry.markSoldOut(couponId);
+        }
+        return code;
+    }
+
+    /*
+    인스턴스가 빌린 수량 안에서만 발급 요청을 Redis 로 보내고, 요청은 쿠폰별로 모아서 보낸다.
+    빌릴 수량이 없으면 Redis 를 거치지 않고 거절한다. (다른 인스턴스가 빌린 수량일 수 있으므로 소진으로 기록하지 않는다)
+     */
+    private CouponIssueRequestCode issueWithLease(long couponId, long userId, int totalQuantity) {
+        Optional<CouponStockLeaseManager.Permit> permit = couponStockLeaseManager.tryAcquire(couponId, totalQuantity);
+        if (permit.isEmpty()) {
+            return CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY;
+        }
+        CouponIssueRequestCode code;
+        try {
+            code = couponIssueRequestCombiner.issue(couponId, userId, totalQuantity);
+        } catch (RuntimeException e) {
+            couponStockLeaseManager.release(permit.get());
+            throw e;
+        }
+        if (code == CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE) {
+            couponStockLeaseManager.release(permit.get());
+        }
+        if (code == CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
+            couponStockLeaseManager.exhaust(couponId);
+            couponSoldOutRegistry.markSoldOut(couponId);
+        }
+        return code;
     }
 
-    private void issueRequest(long couponId, long userId, Integer totalIssueQuantity) {
-        if(totalIssueQuantity == null) {
-            redisRepository.issueRequest(couponId, userId, Integer.MAX_VALUE);
+    /*
+    한 유저에게 여러 쿠폰을 함께 발급 요청하고, 쿠폰별 결과를 couponIds 순서대로 반환한다.
+    같은 파티션의 쿠폰들은 script 한 번으로 확인, 적재하고 큐에는 요청 하나만 적재한다.
+    - ALL_OR_NOTHING: 모든 쿠폰을 발급할 수 있을 때만 발급한다. 쿠폰들이 script 하나로 처리될 수 있어야 한다.
+    - BEST_EFFORT: 발급할 수 있는 쿠폰만 발급한다. 파티션마다 script 를 실행하고, shard 로 나눈 쿠폰은 하나씩 발급한다.
+    묶음 발급은 수량 lease 를 사용하지 않는다. (발급 요청 수는 script 가 확인하므로 초과 발급되지 않는다)
+     */
+    public Map<Long, CouponIssueRequestCode> issueBundle(long userId, List<Long> couponIds, CouponIssueBundleMode mode) {
+        List<Long> targets = couponIds == null ? List.of() : couponIds.stream().distinct().toList();
+        if (targets.isEmpty() || targets.size() > maxBundleSize) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, String.format("묶음 발급은 1개 이상 %s개 이하의 쿠폰만 가능합니다. size: %s", maxBundleSize, targets.size()));
+        }
+        boolean allOrNothing = mode == CouponIssueBundleMode.ALL_OR_NOTHING;
+        Map<Long, CouponIssueRequestCode> results = new LinkedHashMap<>();
+        Map<Long, Integer> issuable = new LinkedHashMap<>();
+        for (Long couponId : targets) {
+            if (couponSoldOutRegistry.isSoldOut(couponId)) {
+                results.put(couponId, CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY);
+                continue;
+            }
+            CouponRedisEntity coupon = couponCacheService.getCouponLocalCache(couponId);
+            CouponIssueRequestCode code = coupon.issuableCode();
+            results.put(couponId, code);
+            if (code.isSuccess()) {
+                issuable.put(couponId, coupon.totalQuantity());
+            }
+        }
+        if (allOrNothing && issuable.size() < targets.size()) {
+            issuable.keySet().forEach(couponId -> results.put(couponId, CouponIssueRequestCode.INCOMPLETE_COUPON_BUNDLE));
+            return results;
+        }
+        Map<Integer, List<Long>> partitions = new LinkedHashMap<>();
+        List<Long> sharded = new ArrayList<>();
+        issuable.forEach((couponId, totalQuantity) -> {
+            if (couponIssueShardRouter.shardCountOf(totalQuantity) > 1) {
+                sharded.add(couponId);
+            } else {
+                partitions.computeIfAbsent(couponIssuePartitioner.partitionOf(couponId), partition -> new ArrayList<>()).add(couponId);
+            }
+        });
+        if (allOrNothing && (!sharded.isEmpty() || partitions.size() > 1)) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, String.format("한 번에 발급할 수 없는 쿠폰 묶음입니다. (다른 파티션이거나 shard 로 나눈 쿠폰) couponIds: %s", targets));
+        }
+        for (List<Long> bundle : partitions.values()) {
+            List<CouponIssueRequestCode> codes = redisRepository.issueBundleRequest(userId, bundle, bundle.stream().map(couponId -> issueQuantityOf(issuable.get(couponId))).toList(), allOrNothing);
+            for (int i = 0; i < bundle.size(); i++) {
+                results.put(bundle.get(i), codes.get(i));
+            }
+        }
+        for (Long couponId : sharded) {
+            results.put(couponId, couponIssueShardRouter.issueRequest(couponId, userId, issuable.get(couponId)));
         }
-        redisRepository.issueRequest(couponId, userId, totalIssueQuantity);
+        results.forEach((couponId, code) -> {
+            if (code == CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
+                couponSoldOutRegistry.markSoldOut(couponId);
+            }
+        });
+        return results;
+    }
+
+    /* 묶음 발급과 같은 기준으로 shard 를 나눈다. 수량 제한이 없는 쿠폰은 나누지 않는다. */
+    private CouponIssueRequestCode issueRequest(long couponId, long userId, Integer totalIssueQuantity) {
+        if (couponIssueShardRouter.shardCountOf(totalIssueQuantity) > 1) {
+            return couponIssueShardRouter.issueRequest(couponId, userId, totalIssueQuantity);
+        }
+        return redisRepository.issueRequest(couponId, userId, issueQuantityOf(totalIssueQuantity));
+    }
+
+    /* 수량 제한이 없는 쿠폰(totalQuantity == null)은 Redis 에 최대 수량으로 요청한다. */
+    private static int issueQuantityOf(Integer totalIssueQuantity) {
+        return totalIssueQuantity == null ? Integer.MAX_VALUE : totalIssueQuantity;
     }
 }
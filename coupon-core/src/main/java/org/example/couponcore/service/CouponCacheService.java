@@ -13,13 +13,17 @@ import org.springframework.stereotype.Service;
 public class CouponCacheService {
     private final CouponIssueService couponIssueService;
 
-    @Cacheable(cacheNames = "coupon")
+    /*
+    sync = true: 같은 키의 캐시 로딩은 인스턴스마다 한 번만 실행한다. (쿠폰 발급 시작 시점에 MySQL 로 몰리는 요청을 막는다)
+    로컬 캐시의 백그라운드 갱신은 LocalCacheConfiguration 참고
+     */
+    @Cacheable(cacheNames = "coupon", sync = true)
     public CouponRedisEntity getCouponCache(long couponId) {
         Coupon coupon = couponIssueService.findCoupon(couponId);
         return new CouponRedisEntity(coupon);
     }
 
-    @Cacheable(cacheNames = "coupon", cacheManager = "localCacheManager")
+    @Cacheable(cacheNames = "coupon", cacheManager = "localCacheManager", sync = true)
     public CouponRedisEntity getCouponLocalCache(long couponId) {
         return proxy().getCouponCache(couponId);
     }
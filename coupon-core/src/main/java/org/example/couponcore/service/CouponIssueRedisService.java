@@ -1,6 +1,7 @@
 package org.example.couponcore.service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.couponcore.component.CouponIssuePartitioner;
 import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.repository.redis.RedisRepository;
 import org.example.couponcore.repository.redis.dto.CouponRedisEntity;
@@ -8,12 +9,12 @@ import org.springframework.stereotype.Service;
 
 import static org.example.couponcore.exception.ErrorCode.DUPLICATED_COUPON_ISSUE;
 import static org.example.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
 
 @Service
 @RequiredArgsConstructor
 public class CouponIssueRedisService {
     private final RedisRepository redisRepository;
+    private final CouponIssuePartitioner couponIssuePartitioner;
 
     public void checkCouponIssueQuantity(CouponRedisEntity coupon, long userId) {
         if(!availableTotalIssueQuantity(coupon.totalQuantity() ,coupon.id())) {
@@ -30,12 +31,12 @@ public class CouponIssueRedisService {
 
     public boolean availableTotalIssueQuantity(Integer totalQuantity, long couponId) {
         if(totalQuantity == null) return true;
-        String key = getIssueRequestKey(couponId);
+        String key = couponIssuePartitioner.issueRequestKeyOf(couponId);
         return totalQuantity > redisRepository.sCard(key);
     }
 
     public boolean availableUserIssueQuantity(long couponId, long userId) {
-        String key = getIssueRequestKey(couponId);
+        String key = couponIssuePartitioner.issueRequestKeyOf(couponId);
         return !redisRepository.sIsMember(key, String.valueOf(userId));
     }
 }
@@ -1,37 +1,160 @@
 package org.example.couponcore.service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.couponcore.component.CouponIssueStrategy;
 import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.exception.ErrorCode;
 import org.example.couponcore.model.Coupon;
 import org.example.couponcore.model.CouponIssue;
 import org.example.couponcore.model.event.CouponIssueCompleteEvent;
+import org.example.couponcore.repository.mysql.CouponIssueBulkRepository;
 import org.example.couponcore.repository.mysql.CouponIssueJpaRepository;
-import org.example.couponcore.repository.mysql.CouponIssueRepository;
 import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.example.couponcore.exception.ErrorCode.COUPON_NOT_EXIST;
 import static org.example.couponcore.exception.ErrorCode.DUPLICATED_COUPON_ISSUE;
+import static org.example.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static org.example.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
 
 @Service
 @RequiredArgsConstructor
 public class CouponIssueService {
     private final CouponJpaRepository couponJpaRepository;
     private final CouponIssueJpaRepository couponIssueJpaRepository;
-    private final CouponIssueRepository couponIssueRepository;
+    private final CouponIssueBulkRepository couponIssueBulkRepository;
+    private final CouponStockService couponStockService;
     private final ApplicationEventPublisher applicationEventPublisher;
 
+    @Value("${coupon.issue.strategy:pessimistic-lock}")
+    private CouponIssueStrategy issueStrategy;
+
     @Transactional
     public void issue(long couponId, long userId) {
+        if (issueStrategy == CouponIssueStrategy.CONDITIONAL_UPDATE || couponStockService.getSlotCount(couponId) > 1) {
+            issueWithConditionalUpdate(couponId, userId);
+            return;
+        }
         Coupon coupon = findCouponWithLock(couponId);
         coupon.issue();
         saveCouponIssue(couponId, userId);
         publishCouponEvent(coupon);
     }
 
+    /*
+    쿠폰을 먼저 읽지 않고 발급한다.
+    - 발급 내역 INSERT 에서 유니크 인덱스로 중복을 걸러낸다.
+    - 수량과 발급 기한을 WHERE 조건으로 가진 UPDATE 의 결과 행 수로 발급 여부를 결정한다.
+    UPDATE 를 마지막에 실행해서 쿠폰 row lock 은 UPDATE 부터 커밋까지만 잡힌다.
+    발급 완료 여부도 UPDATE 결과로 결정하므로 발급 후 쿠폰을 다시 읽지 않는다.
+    발급 수량을 slot 으로 나눈 쿠폰은 전략과 관계없이 이 방식으로 발급한다.
+     */
+    private void issueWithConditionalUpdate(long couponId, long userId) {
+        saveCouponIssue(couponId, userId);
+        if (increaseIssuedQuantity(couponId, 1)) {
+            applicationEventPublisher.publishEvent(new CouponIssueCompleteEvent(couponId));
+        }
+    }
+
+    /*
+    같은 쿠폰에 대한 발급 요청을 묶어서 저장하고, 발급하지 못한 유저의 실패를 반환한다.
+    - 요청 수만큼 발급 수량을 먼저 확보한다. 남은 수량이 부족하면 남은 수량만 확보한다.
+    - 확보한 수량만큼 앞의 유저부터 발급 내역을 저장한다. 이미 발급된 유저는 유니크 인덱스로 건너뛰고 DUPLICATED_COUPON_ISSUE 로 반환한 뒤 다음 유저를 저장한다.
+      같은 묶음이 다시 처리되어도 중복 발급되지 않는다.
+    - 이미 발급된 유저 때문에 쓰지 못한 수량은 되돌리고, 확보한 수량을 넘는 유저는 INVALID_COUPON_ISSUE_QUANTITY 로 실패한다.
+     */
+    @Transactional
+    public Map<Long, CouponIssueException> issue(long couponId, List<Long> userIds) {
+        List<Long> targets = userIds.stream().distinct().toList();
+        if (targets.isEmpty()) {
+            return Map.of();
+        }
+        Reservation reservation = reserveIssuedQuantity(couponId, targets.size());
+        int reserved = reservation.quantity();
+        Map<Long, CouponIssueException> failures = new HashMap<>();
+        int saved = 0;
+        int next = 0;
+        while (saved < reserved && next < targets.size()) {
+            List<Long> chunk = targets.subList(next, Math.min(next + reserved - saved, targets.size()));
+            Set<Long> alreadyIssued = couponIssueBulkRepository.saveAllExceptIssued(couponId, chunk);
+            for (Long userId : alreadyIssued) {
+                failures.put(userId, new CouponIssueException(DUPLICATED_COUPON_ISSUE, String.format("이미 발급된 쿠폰입니다. user_id: %s, coupon_id: %s", userId, couponId)));
+            }
+            saved += chunk.size() - alreadyIssued.size();
+            next += chunk.size();
+        }
+        if (saved < reserved) {
+            releaseIssuedQuantity(couponId, reservation, reserved - saved);
+        }
+        for (Long userId : targets.subList(next, targets.size())) {
+            failures.put(userId, new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, String.format("발급 가능한 수량을 초과합니다. user_id: %s, coupon_id: %s", userId, couponId)));
+        }
+        if (reservation.soldOut() && saved == reserved) {
+            applicationEventPublisher.publishEvent(new CouponIssueCompleteEvent(couponId));
+        }
+        return failures;
+    }
+
+    /*
+    여러 유저의 발급 요청을 쿠폰 lock 한 번으로 처리하고, 유저별 실패를 반환한다.
+    - 남은 수량만큼 앞의 유저부터 발급 내역을 저장하고, 저장 결과로 이미 발급된 유저를 찾아 DUPLICATED_COUPON_ISSUE 로 실패시킨다.
+      이미 발급된 유저 때문에 쓰지 못한 수량은 다음 유저에게 발급한다.
+    - 발급 기한이 아니면 모든 유저가, 남은 수량을 넘는 유저는 Coupon.checkIssuable()의 예외로 실패한다.
+     */
+    @Transactional
+    public Map<Long, CouponIssueException> issueWithLock(long couponId, List<Long> userIds) {
+        Coupon coupon = findCouponWithLock(couponId);
+        applyStockIssuedQuantity(coupon, false);
+        List<Long> targets = userIds.stream().distinct().toList();
+        Map<Long, CouponIssueException> failures = new HashMap<>();
+        int remaining = coupon.getTotalQuantity() == null ? targets.size() : coupon.getTotalQuantity() - coupon.currentIssuedQuantity();
+        int issued = 0;
+        int next = 0;
+        if (coupon.availableIssueDate()) {
+            while (issued < remaining && next < targets.size()) {
+                List<Long> chunk = targets.subList(next, Math.min(next + remaining - issued, targets.size()));
+                Set<Long> alreadyIssued = couponIssueBulkRepository.saveAllExceptIssued(couponId, chunk);
+                for (Long userId : alreadyIssued) {
+                    failures.put(userId, new CouponIssueException(DUPLICATED_COUPON_ISSUE, String.format("이미 발급된 쿠폰입니다. user_id: %s, coupon_id: %s", userId, couponId)));
+                }
+                issued += chunk.size() - alreadyIssued.size();
+                next += chunk.size();
+            }
+        }
+        for (int i = 0; i < issued; i++) {
+            coupon.issue();
+        }
+        if (next < targets.size()) {
+            CouponIssueException failure = issueFailureOf(coupon);
+            targets.subList(next, targets.size()).forEach(userId -> failures.put(userId, failure));
+        }
+        if (coupon.isStockSharded() && issued > 0
+                && couponStockService.increase(couponId, issued).quantity() < issued) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, String.format("쿠폰 발급 수량 갱신에 실패했습니다. coupon_id: %s, quantity: %s", couponId, issued));
+        }
+        publishCouponEvent(coupon);
+        return failures;
+    }
+
+    private static CouponIssueException issueFailureOf(Coupon coupon) {
+        try {
+            coupon.checkIssuable(1);
+        } catch (CouponIssueException e) {
+            return e;
+        }
+        throw new IllegalStateException("발급 가능한 쿠폰입니다. coupon_id: %s".formatted(coupon.getId()));
+    }
 
     /* 이 구조의 문제점
     @Transactional
@@ -56,10 +179,22 @@ public class CouponIssueService {
     4. 트랜잭션 종료
     5. lock 반납
      */
+    /* 발급 수량을 slot 으로 나눈 쿠폰은 짧은 시간 캐시된 slot 발급 수량의 합을 반영한다. */
     @Transactional(readOnly = true)
     public Coupon findCoupon(long couponId) {
-        return couponJpaRepository.findById(couponId)
+        Coupon coupon = couponJpaRepository.findById(couponId)
                 .orElseThrow(() -> new CouponIssueException(COUPON_NOT_EXIST, String.format("쿠폰 정책이 존재하지 않습니다. %s", couponId)));
+        applyStockIssuedQuantity(coupon, true);
+        return coupon;
+    }
+
+    private void applyStockIssuedQuantity(Coupon coupon, boolean cached) {
+        if (!coupon.isStockSharded()) {
+            return;
+        }
+        coupon.applyStockIssuedQuantity(cached
+                ? couponStockService.getIssuedQuantity(coupon.getId())
+                : couponStockService.getIssuedQuantityWithoutCache(coupon.getId()));
     }
 
     @Transactional
@@ -68,21 +203,112 @@ public class CouponIssueService {
                 .orElseThrow(() -> new CouponIssueException(COUPON_NOT_EXIST, String.format("쿠폰 정책이 존재하지 않습니다. %s", couponId)));
     }
 
+    /*
+    중복 발급은 (coupon_id, user_id) 유니크 인덱스로 막고, 위반하면 DUPLICATED_COUPON_ISSUE 로 변환한다.
+    다른 제약 조건 위반은 중복이 아니므로 그대로 던진다.
+     */
     @Transactional
     public CouponIssue saveCouponIssue(long couponId, long userId) {
-        checkAlreadyIssuance(couponId, userId);
         CouponIssue issue = CouponIssue.builder()
                 .couponId(couponId)
                 .userId(userId)
                 .build();
-        return couponIssueJpaRepository.save(issue);
+        try {
+            return couponIssueJpaRepository.saveAndFlush(issue);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicatedCouponIssue(e)) {
+                throw e;
+            }
+            throw new CouponIssueException(DUPLICATED_COUPON_ISSUE, String.format("이미 발급된 쿠폰입니다. user_id: %s, coupon_id: %s", userId, couponId));
+        }
     }
 
-    private void checkAlreadyIssuance(long couponId, long userId) {
-        CouponIssue issue = couponIssueRepository.findFirstCouponIssue(couponId, userId);
-        if (issue != null) {
-            throw new CouponIssueException(DUPLICATED_COUPON_ISSUE, String.format("이미 발급된 쿠폰입니다. user_id: %s, coupon_id: %s", userId, couponId));
+    /* DB 마다 제약 조건 이름에 스키마나 테이블 이름이 붙으므로 유니크 인덱스 이름을 포함하는지 확인한다. */
+    private static boolean isDuplicatedCouponIssue(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase().contains(CouponIssue.UNIQUE_KEY);
+    }
+
+    /*
+    발급 수량을 증가시키고, 이 증가로 남은 수량을 모두 채웠으면 true 를 반환한다.
+    - 증가 후에도 수량이 남는 UPDATE 가 성공하면 발급 완료가 아니다.
+    - 실패하면 남은 수량을 채우는 UPDATE 를 시도하고, 성공하면 이 증가가 마지막 수량이다.
+    - 둘 다 실패했을 때만 쿠폰을 읽어서 실패 원인을 확인한다.
+     */
+    private boolean increaseIssuedQuantity(long couponId, int quantity) {
+        if (couponStockService.getSlotCount(couponId) > 1) {
+            return increaseStockIssuedQuantity(couponId, quantity);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (couponJpaRepository.increaseIssuedQuantityUnderTotal(couponId, quantity, now) == 1) {
+            return false;
+        }
+        if (couponJpaRepository.increaseIssuedQuantity(couponId, quantity, now) == 1) {
+            return true;
+        }
+        findCoupon(couponId).checkIssuable(quantity);
+        throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, String.format("쿠폰 발급 수량 갱신에 실패했습니다. coupon_id: %s, quantity: %s", couponId, quantity));
+    }
+
+    /*
+    slot 의 발급 수량을 증가시키고, 이 증가로 모든 slot 의 수량이 소진되었으면 true 를 반환한다.
+    발급 기한은 먼저 한 번만 확인했으므로 slot 의 UPDATE 가 실패하면 쿠폰을 다시 읽지 않고 수량 예외를 던진다.
+     */
+    private boolean increaseStockIssuedQuantity(long couponId, int quantity) {
+        checkIssueDate(couponId);
+        CouponStockService.Increase increase = couponStockService.increase(couponId, quantity);
+        if (increase.quantity() < quantity) {
+            throw new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, String.format("발급 가능한 수량을 초과합니다. coupon_id: %s, quantity: %s", couponId, quantity));
+        }
+        return increase.soldOut();
+    }
+
+    /* slot 의 UPDATE 는 발급 기한을 확인하지 않으므로 쿠폰의 발급 기한만 먼저 확인한다. slot 의 발급 수량은 읽지 않는다. */
+    private void checkIssueDate(long couponId) {
+        couponJpaRepository.findById(couponId)
+                .orElseThrow(() -> new CouponIssueException(COUPON_NOT_EXIST, String.format("쿠폰 정책이 존재하지 않습니다. %s", couponId)))
+                .checkIssueDate();
+    }
+
+    /*
+    발급 수량을 quantity 만큼 증가시키고, 남은 수량이 부족하면 남은 수량만큼만 증가시킨다.
+    증가시킨 수량과 이 증가로 남은 수량을 모두 채웠는지를 반환한다.
+    증가 후에도 수량이 남는 조건부 UPDATE 가 실패했을 때만 쿠폰을 lock 으로 읽어서 남은 수량을 확인한다.
+     */
+    private Reservation reserveIssuedQuantity(long couponId, int quantity) {
+        if (couponStockService.getSlotCount(couponId) > 1) {
+            checkIssueDate(couponId);
+            CouponStockService.Increase increase = couponStockService.increase(couponId, quantity);
+            return new Reservation(increase.quantity(), increase.soldOut(), increase.slotQuantities());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (couponJpaRepository.increaseIssuedQuantityUnderTotal(couponId, quantity, now) == 1) {
+            return new Reservation(quantity, false, Map.of());
+        }
+        Coupon coupon = findCouponWithLock(couponId);
+        coupon.checkIssueDate();
+        if (coupon.getTotalQuantity() == null) {
+            return new Reservation(couponJpaRepository.increaseIssuedQuantity(couponId, quantity, now) == 1 ? quantity : 0, false, Map.of());
+        }
+        int remaining = coupon.getTotalQuantity() - coupon.getIssuedQuantity();
+        int reserved = Math.min(quantity, remaining);
+        if (reserved <= 0 || couponJpaRepository.increaseIssuedQuantity(couponId, reserved, now) == 0) {
+            return new Reservation(0, false, Map.of());
+        }
+        return new Reservation(reserved, reserved == remaining, Map.of());
+    }
+
+    /* slotQuantities 는 slot 으로 나눈 쿠폰에서 slot 별로 확보한 수량이다. */
+    private record Reservation(int quantity, boolean soldOut, Map<Integer, Integer> slotQuantities) {
+    }
+
+    private void releaseIssuedQuantity(long couponId, Reservation reservation, int quantity) {
+        if (!reservation.slotQuantities().isEmpty()) {
+            couponStockService.decrease(couponId, reservation.slotQuantities(), quantity);
+            return;
         }
+        couponJpaRepository.decreaseIssuedQuantity(couponId, quantity, LocalDateTime.now());
     }
 
     private void publishCouponEvent(Coupon coupon) {
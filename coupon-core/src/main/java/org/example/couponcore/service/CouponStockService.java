@@ -0,0 +1,181 @@
+package org.example.couponcore.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponStockSlot;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.mysql.CouponStockSlotJpaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.example.couponcore.exception.ErrorCode.COUPON_NOT_EXIST;
+import static org.example.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_DATE;
+import static org.example.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
+
+/*
+발급이 몰리는 쿠폰의 발급 수량을 여러 slot (coupon_stock_slots) 으로 나눠서 관리한다.
+coupons.issued_quantity 한 row 에 몰리던 UPDATE 가 slot 수만큼 나눠진다.
+slot 수는 쿠폰 발급이 시작되기 전에 설정해야 한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CouponStockService {
+
+    private final CouponJpaRepository couponJpaRepository;
+    private final CouponStockSlotJpaRepository couponStockSlotJpaRepository;
+
+    @Value("${coupon.cache.local.ttl-seconds:10}")
+    private long localCacheTtlSeconds;
+
+    /*
+    쿠폰의 발급 최대 수량과 발급된 수량을 slotCount 개의 slot 으로 나눈다.
+    slotCount 가 1 이하이면 slot 을 없애고 coupons.issued_quantity 로 되돌린다.
+    slot 수는 인스턴스마다 로컬 캐시에 저장되므로, 발급 기간 중이거나 로컬 캐시가 만료되기 전에 발급이 시작되는 쿠폰은 나눌 수 없다.
+    이전 slot 수로 발급하는 인스턴스가 coupons.issued_quantity 와 slot 에 따로 수량을 세지 않도록 한다.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = "couponStockSlotCount", key = "#couponId", cacheManager = "localCacheManager")
+    public void shard(long couponId, int slotCount) {
+        Coupon coupon = couponJpaRepository.findCouponWithLock(couponId)
+                .orElseThrow(() -> new CouponIssueException(COUPON_NOT_EXIST, String.format("쿠폰 정책이 존재하지 않습니다. %s", couponId)));
+        LocalDateTime now = LocalDateTime.now();
+        if (coupon.getDateIssueEnd().isAfter(now) && coupon.getDateIssueStart().isBefore(now.plusSeconds(localCacheTtlSeconds))) {
+            throw new CouponIssueException(INVALID_COUPON_ISSUE_DATE, String.format("발급 기간 중이거나 %s초 안에 발급이 시작되는 쿠폰은 slot 수를 바꿀 수 없습니다. %s", localCacheTtlSeconds, couponId));
+        }
+        int issuedQuantity = coupon.isStockSharded()
+                ? (int) couponStockSlotJpaRepository.sumIssuedQuantity(couponId)
+                : coupon.getIssuedQuantity();
+        couponStockSlotJpaRepository.deleteByCouponId(couponId);
+        if (slotCount <= 1) {
+            coupon.changeStockSlotCount(null, issuedQuantity);
+            return;
+        }
+        if (coupon.getTotalQuantity() == null) {
+            throw new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, String.format("발급 수량 제한이 없는 쿠폰은 slot 으로 나눌 수 없습니다. %s", couponId));
+        }
+        coupon.changeStockSlotCount(slotCount, issuedQuantity);
+        couponStockSlotJpaRepository.saveAll(slotsOf(couponId, coupon.getTotalQuantity(), issuedQuantity, slotCount));
+    }
+
+    @Cacheable(cacheNames = "couponStockSlotCount", cacheManager = "localCacheManager")
+    public int getSlotCount(long couponId) {
+        return couponJpaRepository.findById(couponId)
+                .map(Coupon::getStockSlotCount)
+                .orElse(0);
+    }
+
+    /* 발급 수량의 합, 짧은 시간 캐시된 값을 사용한다. */
+    @Cacheable(cacheNames = "couponStockIssuedQuantity", cacheManager = "localCacheManager")
+    public int getIssuedQuantity(long couponId) {
+        return getIssuedQuantityWithoutCache(couponId);
+    }
+
+    public int getIssuedQuantityWithoutCache(long couponId) {
+        return (int) couponStockSlotJpaRepository.sumIssuedQuantity(couponId);
+    }
+
+    /*
+    발급 수량을 증가시키고, 증가시킨 수량과 이 증가로 모든 slot 의 수량이 소진되었는지를 반환한다.
+    - quantity 만큼 남은 slot 을 lock 없이 읽고, 그 중 임의의 slot 하나에 quantity 를 증가시킨다.
+    - 실패하면 그 slot 부터 번호 순서로 한 개씩 나눠서 여러 slot 에 증가시키고,
+      모든 slot 의 수량이 부족하면 그때까지 증가시킨 수량을 반환한다. (quantity 를 모두 증가시켜야 하는 호출자는 트랜잭션을 롤백한다)
+    REPEATABLE READ 에서는 실패한 조건부 UPDATE 도 row lock 을 잡으므로, 트랜잭션은 slot 번호가 커지는 순서로만 lock 을 잡는다. (교착 상태 방지)
+    그래서 읽은 뒤 고른 slot 이 먼저 채워지면 그보다 앞 번호 slot 의 남은 수량은 이 요청에 쓰지 않는다.
+    slot 에 수량이 남는 UPDATE 가 실패하고 slot 을 채웠을 때만 남은 slot 이 있는지 확인한다.
+     */
+    @Transactional
+    public Increase increase(long couponId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> slots = couponStockSlotJpaRepository.findIssuableSlots(couponId, quantity);
+        int from = 0;
+        if (!slots.isEmpty()) {
+            from = slots.get(ThreadLocalRandom.current().nextInt(slots.size()));
+            SlotIncrease result = increaseSlot(couponId, from, quantity, now);
+            if (result != SlotIncrease.FAILED) {
+                return new Increase(quantity, result == SlotIncrease.FILLED && isSoldOut(couponId), Map.of(from, quantity));
+            }
+        }
+        Map<Integer, Integer> slotQuantities = new TreeMap<>();
+        int increased = 0;
+        boolean filled = false;
+        if (quantity > 1 || !slots.isEmpty()) {
+            for (int slot : couponStockSlotJpaRepository.findIssuableSlots(couponId, 1)) {
+                SlotIncrease result = SlotIncrease.INCREASED;
+                while (slot >= from && increased < quantity && result == SlotIncrease.INCREASED) {
+                    result = increaseSlot(couponId, slot, 1, now);
+                    if (result != SlotIncrease.FAILED) {
+                        slotQuantities.merge(slot, 1, Integer::sum);
+                        increased++;
+                        filled |= result == SlotIncrease.FILLED;
+                    }
+                }
+            }
+        }
+        return new Increase(increased, filled && isSoldOut(couponId), slotQuantities);
+    }
+
+    /* 증가시켰지만 발급하지 못한 수량을 증가시킨 slot 에서 되돌린다. 이미 lock 을 잡은 slot 이므로 새로 lock 을 기다리지 않는다. */
+    @Transactional
+    public void decrease(long couponId, Map<Integer, Integer> slotQuantities, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        int remaining = quantity;
+        for (Map.Entry<Integer, Integer> slotQuantity : new TreeMap<>(slotQuantities).entrySet()) {
+            if (remaining == 0) {
+                return;
+            }
+            int decreased = Math.min(remaining, slotQuantity.getValue());
+            couponStockSlotJpaRepository.decreaseIssuedQuantity(couponId, slotQuantity.getKey(), decreased, now);
+            remaining -= decreased;
+        }
+    }
+
+    private SlotIncrease increaseSlot(long couponId, int slot, int quantity, LocalDateTime now) {
+        if (couponStockSlotJpaRepository.increaseIssuedQuantityUnderTotal(couponId, slot, quantity, now) == 1) {
+            return SlotIncrease.INCREASED;
+        }
+        if (couponStockSlotJpaRepository.increaseIssuedQuantity(couponId, slot, quantity, now) == 1) {
+            return SlotIncrease.FILLED;
+        }
+        return SlotIncrease.FAILED;
+    }
+
+    private boolean isSoldOut(long couponId) {
+        return couponStockSlotJpaRepository.countIssuableSlots(couponId) == 0;
+    }
+
+    /* 증가시킨 수량과 이 증가로 모든 slot 의 수량이 소진되었는지, slot 별로 증가시킨 수량 (되돌릴 때 사용한다) */
+    public record Increase(int quantity, boolean soldOut, Map<Integer, Integer> slotQuantities) {
+    }
+
+    private enum SlotIncrease {
+        FAILED, INCREASED, FILLED
+    }
+
+    private static List<CouponStockSlot> slotsOf(long couponId, int totalQuantity, int issuedQuantity, int slotCount) {
+        List<CouponStockSlot> slots = new ArrayList<>(slotCount);
+        int remainingIssued = issuedQuantity;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int slotTotal = totalQuantity / slotCount + (slot < totalQuantity % slotCount ? 1 : 0);
+            int slotIssued = Math.min(slotTotal, remainingIssued);
+            remainingIssued -= slotIssued;
+            slots.add(CouponStockSlot.builder()
+                    .couponId(couponId)
+                    .slot(slot)
+                    .totalQuantity(slotTotal)
+                    .issuedQuantity(slotIssued)
+                    .build());
+        }
+        return slots;
+    }
+}
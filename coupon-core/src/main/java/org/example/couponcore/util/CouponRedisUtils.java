@@ -2,12 +2,102 @@ package org.example.couponcore.util;
 
 public class CouponRedisUtils {
 
-    public static String getIssueRequestKey(long couponId) {
-        return "issue.request.couponId=%s".formatted(couponId);
+    /*
+    Lua script 에서 함께 사용하는 키는 발급 요청 큐 이름({issue.request}, {issue.request.partition=N})을 hash tag 로 붙여서
+    Redis Cluster 에서 큐와 같은 slot 에 저장한다. hashTag 는 CouponIssuePartitioner 가 정한다.
+     */
+    public static String getIssueRequestKey(long couponId, String hashTag) {
+        return "issue.request.couponId=%s%s".formatted(couponId, hashTag);
+    }
+
+    public static String getIssueRequestKey(long couponId, int shard, String hashTag) {
+        return "issue.request.couponId=%s.shard=%s%s".formatted(couponId, shard, hashTag);
+    }
+
+    public static String getIssueRequestQuotaKey(long couponId, int shard, String hashTag) {
+        return "issue.request.quota.couponId=%s.shard=%s%s".formatted(couponId, shard, hashTag);
+    }
+
+    public static String getIssueRequestOverflowKey(long couponId, int shard, String hashTag) {
+        return "issue.request.overflow.couponId=%s.shard=%s%s".formatted(couponId, shard, hashTag);
+    }
+
+    public static String getIssueRequestBitmapKey(long couponId, String hashTag) {
+        return "issue.request.bitmap.couponId=%s%s".formatted(couponId, hashTag);
+    }
+
+    public static String getIssueRequestSoldOutKey(long couponId, String hashTag) {
+        return "issue.request.sold-out.couponId=%s%s".formatted(couponId, hashTag);
+    }
+
+    public static String getIssueRequestCountKey(long couponId, String hashTag) {
+        return "issue.request.count.couponId=%s%s".formatted(couponId, hashTag);
+    }
+
+    public static String getIssueRequestCountKeyPrefix() {
+        return "issue.request.count.couponId=";
+    }
+
+    public static String getIssueRequestKeyPrefix() {
+        return "issue.request.couponId=";
+    }
+
+    public static String getIssueStockLeaseKey(long couponId, String hashTag) {
+        return "issue.stock.lease.couponId=%s%s".formatted(couponId, hashTag);
     }
 
     public static String getIssueRequestQueueKey() {
-        return "issue.request";
+        return "{issue.request}";
+    }
+
+    public static String getIssueRequestQueueKey(int partition) {
+        return "{issue.request.partition=%s}".formatted(partition);
+    }
+
+    /* 발급 요청 set 을 나눈 쿠폰의 shard 키는 파티션 큐가 아닌 shard 마다 다른 hash tag 를 붙인다. */
+    public static String getIssueRequestShardHashTag(long couponId, int shard) {
+        return "{issue.request.couponId=%s.shard=%s}".formatted(couponId, shard);
+    }
+
+    public static String getIssueRequestStreamKey(String queueKey) {
+        return "%s.stream".formatted(queueKey);
+    }
+
+    public static String getIssueRequestProcessingKey(String queueKey, String consumerId) {
+        return "%s.processing.%s".formatted(queueKey, consumerId);
+    }
+
+    public static String getIssueRequestPartitionLeaseKey(int partition) {
+        return "issue.request.partition.lease=%s".formatted(partition);
+    }
+
+    public static String getIssueRequestConsumerKey() {
+        return "issue.request.consumers";
+    }
+
+    public static String getIssueRequestRetryKey() {
+        return "issue.request.retry";
+    }
+
+    /* 재시도 대기열에서 발급 요청 큐로 옮기는 script 가 함께 쓰도록 파티션 큐의 hash tag 를 붙인다. */
+    public static String getIssueRequestDelayedKey(String hashTag) {
+        return "issue.request.delayed%s".formatted(hashTag);
+    }
+
+    public static String getIssueRequestDeadLetterKey() {
+        return "issue.request.dead-letter";
+    }
+
+    public static String getIssueRequestNotifyChannel() {
+        return "issue.request.notify";
+    }
+
+    public static String getCouponCacheChannel() {
+        return "coupon.cache.refresh";
+    }
+
+    public static String getCouponSoldOutChannel() {
+        return "coupon.sold-out";
     }
 
 
@@ -9,6 +9,7 @@ CREATE TABLE `coupon`.`coupons`
     `min_available_amount` INT          NOT NULL COMMENT '최소 사용 금액',
     `date_issue_start`     datetime(6) NOT NULL COMMENT '발급 시작 일시',
     `date_issue_end`       datetime(6) NOT NULL COMMENT '발급 종료 일시',
+    `stock_slot_count`     INT NULL COMMENT '발급 수량을 나눠 저장할 slot 수 (NULL이면 issued_quantity 사용)',
     `date_created`         datetime(6) NOT NULL COMMENT '생성 일시',
     `date_updated`         datetime(6) NOT NULL COMMENT '수정 일시',
     PRIMARY KEY (`id`)
@@ -25,7 +26,23 @@ CREATE TABLE `coupon`.`coupon_issues`
     `date_used`    datetime(6) NULL COMMENT '사용 일시',
     `date_created` datetime(6) NOT NULL COMMENT '생성 일시',
     `date_updated` datetime(6) NOT NULL COMMENT '수정 일시',
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_coupon_issues_coupon_id_user_id` (`coupon_id`, `user_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+    COMMENT '쿠폰 발급 내역';
+
+CREATE TABLE `coupon`.`coupon_stock_slots`
+(
+    `id`              BIGINT(20) NOT NULL AUTO_INCREMENT,
+    `coupon_id`       BIGINT(20) NOT NULL COMMENT '쿠폰 ID',
+    `slot`            INT NOT NULL COMMENT 'slot 번호',
+    `total_quantity`  INT NOT NULL COMMENT 'slot 발급 최대 수량',
+    `issued_quantity` INT NOT NULL COMMENT 'slot 발급된 수량',
+    `date_created`    datetime(6) NOT NULL COMMENT '생성 일시',
+    `date_updated`    datetime(6) NOT NULL COMMENT '수정 일시',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_coupon_stock_slots_coupon_id_slot` (`coupon_id`, `slot`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
-    COMMENT '쿠폰 발급 내역';
\ No newline at end of file
+    COMMENT '쿠폰 발급 수량 slot';
@@ -0,0 +1,82 @@
+package org.example.couponcore.component;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.service.CouponCacheService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.example.couponcore.util.CouponRedisUtils.getCouponCacheChannel;
+
+class CouponCacheSynchronizerTest extends TestConfig {
+
+    @Autowired
+    CouponCacheSynchronizer sut;
+
+    @Autowired
+    CouponCacheService couponCacheService;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    @Qualifier("localCacheManager")
+    CacheManager localCacheManager;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+        localCacheManager.getCache("coupon").clear();
+    }
+
+    @Test
+    @DisplayName("쿠폰 캐시 갱신 알림을 받으면 로컬 캐시를 Redis 캐시의 값으로 갱신한다.")
+    void onMessage_1() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(1)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        Assertions.assertTrue(couponCacheService.getCouponLocalCache(coupon.getId()).availableIssueQuantity());
+        coupon.issue();
+        couponCacheService.putCouponCache(coupon.getId());
+
+        // When
+        sut.onMessage(new DefaultMessage(
+                getCouponCacheChannel().getBytes(StandardCharsets.UTF_8),
+                String.valueOf(coupon.getId()).getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        Assertions.assertFalse(couponCacheService.getCouponLocalCache(coupon.getId()).availableIssueQuantity());
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 알림은 무시한다.")
+    void onMessage_2() {
+        // When & Then
+        Assertions.assertDoesNotThrow(() -> sut.onMessage(new DefaultMessage(
+                getCouponCacheChannel().getBytes(StandardCharsets.UTF_8),
+                "invalid".getBytes(StandardCharsets.UTF_8)), null));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.couponcore.component;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.exception.ErrorCode;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponIssueJpaRepository;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "coupon.issue.combiner.enabled=true")
+class CouponIssueCombinerTest extends TestConfig {
+
+    @Autowired
+    CouponIssueCombiner sut;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @Autowired
+    CouponIssueJpaRepository couponIssueJpaRepository;
+
+    @BeforeEach
+    @AfterEach
+    void clean() {
+        couponJpaRepository.deleteAllInBatch();
+        couponIssueJpaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 발급 요청을 발급 수량만큼 발급하고, 나머지 요청은 각자의 예외를 반환한다")
+    void issue_1() throws Exception {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(30)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        Map<ErrorCode, Integer> failures = new ConcurrentHashMap<>();
+        // When
+        List<Future<?>> futures = LongStream.rangeClosed(1, 50)
+                .<Future<?>>mapToObj(userId -> executorService.submit(() -> {
+                    try {
+                        sut.issue(coupon.getId(), userId);
+                    } catch (CouponIssueException e) {
+                        failures.merge(e.getErrorCode(), 1, Integer::sum);
+                    }
+                }))
+                .toList();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        // Then
+        Assertions.assertEquals(30, couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity());
+        Assertions.assertEquals(30, couponIssueJpaRepository.count());
+        Assertions.assertEquals(Map.of(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, 20), failures);
+    }
+
+    @Test
+    @DisplayName("이미 발급된 유저의 요청은 중복 발급 예외를 반환한다")
+    void issue_2() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(30)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        sut.issue(coupon.getId(), 1L);
+        // When & Then
+        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), 1L));
+        Assertions.assertEquals(ErrorCode.DUPLICATED_COUPON_ISSUE, exception.getErrorCode());
+    }
+}
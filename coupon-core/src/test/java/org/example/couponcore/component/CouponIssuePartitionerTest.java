@@ -0,0 +1,64 @@
+package org.example.couponcore.component;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.example.couponcore.TestConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestProcessingKey;
+
+@TestPropertySource(properties = {
+        "coupon.queue.partition-count=4",
+        "coupon.queue.transport=stream"
+})
+class CouponIssuePartitionerTest extends TestConfig {
+
+    @Autowired
+    CouponIssuePartitioner sut;
+
+    @Test
+    @DisplayName("발급 요청 set 과 stock lease 는 쿠폰의 파티션 큐와 같은 slot 에 저장된다.")
+    void slot_1() {
+        LongStream.rangeClosed(1, 20).forEach(couponId -> {
+            int queueSlot = SlotHash.getSlot(sut.queueKeyOf(couponId));
+            Assertions.assertEquals(queueSlot, SlotHash.getSlot(sut.issueRequestKeyOf(couponId)));
+            Assertions.assertEquals(queueSlot, SlotHash.getSlot(sut.issueStockLeaseKeyOf(couponId)));
+        });
+    }
+
+    @Test
+    @DisplayName("shard 의 발급 요청 set, quota, overflow set 은 같은 slot 에 저장된다.")
+    void slot_2() {
+        long couponId = 1;
+        for (int shard = 0; shard < 8; shard++) {
+            int shardSlot = SlotHash.getSlot(sut.issueRequestKeyOf(couponId, shard));
+            Assertions.assertEquals(shardSlot, SlotHash.getSlot(sut.issueRequestQuotaKeyOf(couponId, shard)));
+            Assertions.assertEquals(shardSlot, SlotHash.getSlot(sut.issueRequestOverflowKeyOf(couponId, shard)));
+        }
+    }
+
+    @Test
+    @DisplayName("consumer 의 처리 중 목록은 파티션 큐와 같은 slot 에 저장된다.")
+    void slot_3() {
+        for (String queueKey : sut.queueKeys()) {
+            Assertions.assertEquals(SlotHash.getSlot(queueKey), SlotHash.getSlot(getIssueRequestProcessingKey(queueKey, "consumer-1")));
+        }
+    }
+
+    @Test
+    @DisplayName("파티션 큐는 서로 다른 hash tag 를 가져서 cluster 의 여러 slot 으로 나눠진다.")
+    void slot_4() {
+        Set<Integer> slots = sut.queueKeys().stream()
+                .map(SlotHash::getSlot)
+                .collect(Collectors.toSet());
+
+        Assertions.assertEquals(4, slots.size());
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.couponcore.component;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+@TestPropertySource(properties = {
+        "coupon.issue.hot-coupon.shard-count=4",
+        "coupon.issue.hot-coupon.min-quantity=10"
+})
+class CouponIssueShardRouterTest extends TestConfig {
+
+    @Autowired
+    CouponIssueShardRouter sut;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("발급 수량이 min-quantity 이상인 쿠폰만 나눈다.")
+    void shardCountOf_1() {
+        Assertions.assertEquals(1, sut.shardCountOf(null));
+        Assertions.assertEquals(1, sut.shardCountOf(9));
+        Assertions.assertEquals(4, sut.shardCountOf(10));
+    }
+
+    @Test
+    @DisplayName("shard 마다 요청된 수가 달라도 다른 shard 에 남은 수량으로 발급 수량만큼 발급 요청을 적재한다.")
+    void issueRequest_1() {
+        // Given
+        long couponId = 1;
+        int totalQuantity = 10;
+
+        // When
+        List<CouponIssueRequestCode> results = LongStream.rangeClosed(1, 30)
+                .mapToObj(userId -> sut.issueRequest(couponId, userId, totalQuantity))
+                .toList();
+
+        // Then
+        Assertions.assertEquals(totalQuantity, results.stream().filter(CouponIssueRequestCode::isSuccess).count());
+        long requested = IntStream.range(0, 4)
+                .mapToLong(shard -> redisTemplate.opsForSet().size(couponIssuePartitioner.issueRequestKeyOf(couponId, shard)))
+                .sum();
+        Assertions.assertEquals(totalQuantity, requested);
+    }
+
+    @Test
+    @DisplayName("같은 유저는 항상 같은 shard 로 보내서 중복 발급 요청을 막는다.")
+    void issueRequest_2() {
+        // Given
+        long couponId = 1;
+        sut.issueRequest(couponId, 1, 10);
+
+        // When
+        CouponIssueRequestCode result = sut.issueRequest(couponId, 1, 10);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, result);
+    }
+
+    @Test
+    @DisplayName("다른 shard 의 수량으로 발급 요청된 유저도 다시 요청하면 중복으로 막는다.")
+    void issueRequest_3() {
+        // Given
+        long couponId = 1;
+        int totalQuantity = 10;
+        List<Long> requestedUserIds = LongStream.rangeClosed(1, 30)
+                .filter(userId -> sut.issueRequest(couponId, userId, totalQuantity).isSuccess())
+                .boxed()
+                .toList();
+
+        // When
+        List<CouponIssueRequestCode> results = requestedUserIds.stream()
+                .map(userId -> sut.issueRequest(couponId, userId, totalQuantity))
+                .toList();
+
+        // Then
+        Assertions.assertTrue(results.stream().allMatch(code -> code == CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE));
+    }
+
+    @Test
+    @DisplayName("파티션이 하나여도 shard 의 발급 요청 set 은 shard 마다 다른 slot 에 저장된다.")
+    void slot_1() {
+        // Given
+        long couponId = 1;
+
+        // When
+        Set<Integer> slots = IntStream.range(0, sut.shardCountOf(10))
+                .mapToObj(shard -> SlotHash.getSlot(couponIssuePartitioner.issueRequestKeyOf(couponId, shard)))
+                .collect(Collectors.toSet());
+
+        // Then
+        Assertions.assertEquals(4, slots.size());
+    }
+
+    @Test
+    @DisplayName("모든 shard 의 수량이 소진되면 소진 표시 키를 기록한다.")
+    void issueRequest_4() {
+        // Given
+        long couponId = 1;
+        int totalQuantity = 10;
+        LongStream.rangeClosed(1, totalQuantity)
+                .forEach(userId -> sut.issueRequest(couponId, userId, totalQuantity));
+
+        // When
+        CouponIssueRequestCode result = sut.issueRequest(couponId, totalQuantity + 1, totalQuantity);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, result);
+        Assertions.assertTrue(redisTemplate.hasKey(couponIssuePartitioner.issueRequestSoldOutKeyOf(couponId)));
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.couponcore.component;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+class FlatCombinerTest {
+
+    @Test
+    @DisplayName("동시에 들어온 요청을 max-batch-size 이하의 묶음으로 처리하고, 요청마다 자신의 결과를 반환한다.")
+    void combine_1() throws Exception {
+        // Given
+        Set<Integer> batchSizes = ConcurrentHashMap.newKeySet();
+        FlatCombiner<Long, Long, Long> sut = new FlatCombiner<>(4, (key, batch) -> {
+            batchSizes.add(batch.size());
+            batch.forEach(request -> request.result().complete(request.value() * 10));
+        });
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        // When
+        List<Future<Long>> futures = LongStream.rangeClosed(1, 100)
+                .mapToObj(value -> executorService.submit(() -> sut.combine(1L, value)))
+                .toList();
+        // Then
+        for (int i = 0; i < futures.size(); i++) {
+            Assertions.assertEquals((i + 1) * 10L, futures.get(i).get());
+        }
+        executorService.shutdown();
+        Assertions.assertTrue(batchSizes.stream().allMatch(size -> size >= 1 && size <= 4));
+    }
+
+    @Test
+    @DisplayName("handler 가 완료하지 않은 요청은 예외로 완료한다.")
+    void combine_2() {
+        // Given
+        FlatCombiner<Long, Long, Long> sut = new FlatCombiner<>(4, (key, batch) -> {
+        });
+        // When & Then
+        Assertions.assertThrows(IllegalStateException.class, () -> sut.combine(1L, 1L));
+    }
+
+    @Test
+    @DisplayName("handler 가 던진 예외를 묶음의 모든 요청에 반환한다.")
+    void combine_3() {
+        // Given
+        FlatCombiner<Long, Long, Long> sut = new FlatCombiner<>(4, (key, batch) -> {
+            throw new IllegalArgumentException("handler");
+        });
+        // When & Then
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class, () -> sut.combine(1L, 1L));
+        Assertions.assertEquals("handler", exception.getMessage());
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.couponcore.repository.redis;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+@TestPropertySource(properties = {
+        "coupon.issue.bitmap.enabled=true",
+        "coupon.issue.bitmap.min-quantity=5",
+        "coupon.issue.bitmap.max-user-id=1000"
+})
+class RedisRepositoryBitmapTest extends TestConfig {
+
+    @Autowired
+    RedisRepository sut;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("발급 수량이 min-quantity 이상인 쿠폰은 발급 요청한 유저를 bitmap 에 기록하고 요청 수를 카운터로 관리한다.")
+    void issueRequest_1() {
+        // Given
+        long couponId = 1;
+
+        // When
+        List<CouponIssueRequestCode> results = LongStream.rangeClosed(1, 10)
+                .mapToObj(userId -> sut.issueRequest(couponId, userId, 5))
+                .toList();
+
+        // Then
+        Assertions.assertEquals(5, results.stream().filter(CouponIssueRequestCode::isSuccess).count());
+        Assertions.assertEquals("5", redisTemplate.opsForValue().get(couponIssuePartitioner.issueRequestCountKeyOf(couponId)));
+        Assertions.assertEquals(Boolean.TRUE, redisTemplate.opsForValue().getBit(couponIssuePartitioner.issueRequestBitmapKeyOf(couponId), 5));
+        Assertions.assertEquals(Boolean.FALSE, redisTemplate.opsForValue().getBit(couponIssuePartitioner.issueRequestBitmapKeyOf(couponId), 6));
+        Assertions.assertFalse(redisTemplate.hasKey(couponIssuePartitioner.issueRequestKeyOf(couponId)));
+    }
+
+    @Test
+    @DisplayName("bitmap 에 기록된 유저가 다시 요청하면 중복 요청으로 거절한다.")
+    void issueRequest_2() {
+        // Given
+        long couponId = 1;
+        sut.issueRequest(couponId, 1, 5);
+
+        // When
+        CouponIssueRequestCode result = sut.issueRequest(couponId, 1, 5);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, result);
+        Assertions.assertEquals("1", redisTemplate.opsForValue().get(couponIssuePartitioner.issueRequestCountKeyOf(couponId)));
+    }
+
+    @Test
+    @DisplayName("bitmap 으로 표현할 수 없는 userId 는 발급 요청 set 에 기록하고 요청 수에 포함한다.")
+    void issueRequest_3() {
+        // Given
+        long couponId = 1;
+        long userId = 1L << 40;
+
+        // When
+        List<CouponIssueRequestCode> results = sut.issueRequests(couponId, List.of(userId, userId, 1L), 5);
+
+        // Then
+        Assertions.assertEquals(List.of(CouponIssueRequestCode.SUCCESS, CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, CouponIssueRequestCode.SUCCESS), results);
+        Assertions.assertEquals(Boolean.TRUE, redisTemplate.opsForSet().isMember(couponIssuePartitioner.issueRequestKeyOf(couponId), String.valueOf(userId)));
+        Assertions.assertEquals("2", redisTemplate.opsForValue().get(couponIssuePartitioner.issueRequestCountKeyOf(couponId)));
+    }
+
+    @Test
+    @DisplayName("max-user-id 보다 큰 userId 는 bitmap 을 늘리지 않고 발급 요청 set 에 기록한다.")
+    void issueRequest_5() {
+        // Given
+        long couponId = 1;
+        long userId = 1001;
+
+        // When
+        CouponIssueRequestCode result = sut.issueRequest(couponId, userId, 5);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.SUCCESS, result);
+        Assertions.assertEquals(Boolean.TRUE, redisTemplate.opsForSet().isMember(couponIssuePartitioner.issueRequestKeyOf(couponId), String.valueOf(userId)));
+        Assertions.assertFalse(redisTemplate.hasKey(couponIssuePartitioner.issueRequestBitmapKeyOf(couponId)));
+    }
+
+    @Test
+    @DisplayName("발급 수량이 min-quantity 보다 작은 쿠폰은 발급 요청 set 을 사용한다.")
+    void issueRequest_4() {
+        // Given
+        long couponId = 1;
+
+        // When
+        sut.issueRequest(couponId, 1, 4);
+
+        // Then
+        Assertions.assertEquals(1, redisTemplate.opsForSet().size(couponIssuePartitioner.issueRequestKeyOf(couponId)));
+        Assertions.assertFalse(redisTemplate.hasKey(couponIssuePartitioner.issueRequestBitmapKeyOf(couponId)));
+    }
+
+    @Test
+    @DisplayName("수량이 모두 요청되면 소진 표시 키를 만료 시간과 함께 한 번만 기록한다.")
+    void issueRequest_6() {
+        // Given
+        long setCouponId = 1;
+        long bitmapCouponId = 2;
+
+        // When
+        LongStream.rangeClosed(1, 3).forEach(userId -> sut.issueRequest(setCouponId, userId, 1));
+        LongStream.rangeClosed(1, 7).forEach(userId -> sut.issueRequest(bitmapCouponId, userId, 5));
+
+        // Then
+        for (long couponId : List.of(setCouponId, bitmapCouponId)) {
+            String soldOutKey = couponIssuePartitioner.issueRequestSoldOutKeyOf(couponId);
+            Assertions.assertEquals("1", redisTemplate.opsForValue().get(soldOutKey));
+            Assertions.assertTrue(redisTemplate.getExpire(soldOutKey) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("묶음 발급 요청으로 수량이 모두 요청된 쿠폰만 소진 표시 키를 기록한다.")
+    void issueBundleRequest_1() {
+        // Given
+        long setCouponId = 1;
+        long bitmapCouponId = 2;
+
+        // When
+        LongStream.rangeClosed(1, 3).forEach(userId -> sut.issueBundleRequest(userId, List.of(setCouponId, bitmapCouponId), List.of(1, 5), false));
+
+        // Then
+        String soldOutKey = couponIssuePartitioner.issueRequestSoldOutKeyOf(setCouponId);
+        Assertions.assertEquals("1", redisTemplate.opsForValue().get(soldOutKey));
+        Assertions.assertTrue(redisTemplate.getExpire(soldOutKey) > 0);
+        Assertions.assertFalse(redisTemplate.hasKey(couponIssuePartitioner.issueRequestSoldOutKeyOf(bitmapCouponId)));
+        Assertions.assertEquals("3", redisTemplate.opsForValue().get(couponIssuePartitioner.issueRequestCountKeyOf(bitmapCouponId)));
+    }
+
+    @Test
+    @DisplayName("bitmap 을 사용하는 쿠폰은 카운터의 요청 수를 제외하고 수량을 빌려준다.")
+    void leaseIssueStock_1() {
+        // Given
+        long couponId = 1;
+        LongStream.rangeClosed(1, 4).forEach(userId -> sut.issueRequest(couponId, userId, 10));
+
+        // When
+        int leased = sut.leaseIssueStock(couponId, "instance-1", 10, 100, 3000);
+
+        // Then
+        Assertions.assertEquals(6, leased);
+    }
+}
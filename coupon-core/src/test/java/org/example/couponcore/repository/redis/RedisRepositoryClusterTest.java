@@ -0,0 +1,88 @@
+package org.example.couponcore.repository.redis;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKeyPrefix;
+
+/*
+docker-compose-redis-cluster.yml 로 띄운 로컬 Redis Cluster 에서 실행한다. (REDIS_CLUSTER=true)
+여러 키를 사용하는 script 가 CROSSSLOT 오류 없이 실행되는지 확인한다.
+ */
+@EnabledIfEnvironmentVariable(named = "REDIS_CLUSTER", matches = "true")
+@TestPropertySource(properties = {
+        "spring.data.redis.cluster.nodes=localhost:7001,localhost:7002,localhost:7003,localhost:7004,localhost:7005,localhost:7006",
+        "coupon.queue.partition-count=4"
+})
+class RedisRepositoryClusterTest extends TestConfig {
+
+    @Autowired
+    RedisRepository sut;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("여러 쿠폰의 발급 요청이 각 쿠폰의 파티션 큐에 적재된다.")
+    void issueRequest_1() {
+        // When
+        List<CouponIssueRequestCode> results = LongStream.rangeClosed(1, 8)
+                .mapToObj(couponId -> sut.issueRequest(couponId, 1, 10))
+                .toList();
+
+        // Then
+        Assertions.assertTrue(results.stream().allMatch(CouponIssueRequestCode::isSuccess));
+        couponIssuePartitioner.queueKeys().forEach(queueKey ->
+                Assertions.assertEquals(2, sut.issueRequestQueueSize(queueKey)));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 요청과 shard 발급 요청, 수량 lease 가 cluster 에서 실행된다.")
+    void issueRequest_2() {
+        // When
+        List<CouponIssueRequestCode> batch = sut.issueRequests(1, List.of(1L, 2L, 1L), 10);
+        CouponIssueRequestCode shard = sut.issueShardRequest(2, 3, 1, 5);
+        int leased = sut.leaseIssueStock(1, "instance-1", 10, 3, 3000);
+
+        // Then
+        Assertions.assertEquals(List.of(CouponIssueRequestCode.SUCCESS, CouponIssueRequestCode.SUCCESS, CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE), batch);
+        Assertions.assertEquals(CouponIssueRequestCode.SUCCESS, shard);
+        Assertions.assertEquals(3, leased);
+    }
+
+    @Test
+    @DisplayName("모든 master 노드의 발급 요청 set 을 조회한다.")
+    void scan_1() {
+        // Given
+        LongStream.rangeClosed(1, 8).forEach(couponId -> sut.issueRequest(couponId, 1, 10));
+
+        // When
+        Set<String> keys = sut.scan(getIssueRequestKeyPrefix() + "*");
+
+        // Then
+        Assertions.assertEquals(8, keys.size());
+    }
+}
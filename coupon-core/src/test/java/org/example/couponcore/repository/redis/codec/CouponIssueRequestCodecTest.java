@@ -0,0 +1,74 @@
+package org.example.couponcore.repository.redis.codec;
+
+import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class CouponIssueRequestCodecTest {
+
+    CouponIssueRequestCodec sut = new CouponIssueRequestCodec();
+
+    @Test
+    @DisplayName("발급 요청을 버전이 붙은 구분자 형식으로 저장하고 다시 읽는다.")
+    void encode_1() {
+        // Given
+        CouponIssueRequest request = new CouponIssueRequest(1, 1000, 1700000000000L);
+        // When
+        String payload = sut.encode(request);
+        // Then
+        Assertions.assertEquals("1:1:1000:1700000000000", payload);
+        Assertions.assertEquals(request, sut.decode(payload));
+    }
+
+    @Test
+    @DisplayName("이전 형식인 JSON 발급 요청도 읽는다.")
+    void decode_1() {
+        // When
+        CouponIssueRequest result = sut.decode("{\"couponId\":1,\"userId\":1000,\"requestedAt\":1700000000000}");
+        // Then
+        Assertions.assertEquals(new CouponIssueRequest(1, 1000, 1700000000000L), result);
+    }
+
+    @Test
+    @DisplayName("적재 시각이 없는 JSON 발급 요청은 적재 시각을 0 으로 읽는다.")
+    void decode_2() {
+        // When
+        CouponIssueRequest result = sut.decode("{\"couponId\":1,\"userId\":1000}");
+        // Then
+        Assertions.assertEquals(new CouponIssueRequest(1, 1000, 0), result);
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 발급 요청은 IllegalArgumentException 을 던진다.")
+    void decode_3() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decode("1:1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decode("1:a:b:c"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decode("2:1:1:1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decode("{\"couponId\":"));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 요청은 쿠폰마다 발급 요청으로 읽고, 묶음이 아닌 요청은 하나만 읽는다.")
+    void decodeAll_1() {
+        // When
+        List<CouponIssueRequest> bundle = sut.decodeAll(sut.encodeBundlePrefix(1000, 1700000000000L) + "1,2,3");
+        List<CouponIssueRequest> single = sut.decodeAll("1:1:1000:1700000000000");
+        // Then
+        Assertions.assertEquals(List.of(
+                new CouponIssueRequest(1, 1000, 1700000000000L),
+                new CouponIssueRequest(2, 1000, 1700000000000L),
+                new CouponIssueRequest(3, 1000, 1700000000000L)), bundle);
+        Assertions.assertEquals(List.of(new CouponIssueRequest(1, 1000, 1700000000000L)), single);
+    }
+
+    @Test
+    @DisplayName("쿠폰 목록이 없거나 읽을 수 없는 묶음 발급 요청은 IllegalArgumentException 을 던진다.")
+    void decodeAll_2() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decodeAll("2:1000:1700000000000:"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decodeAll("2:1000:1700000000000:1,,2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.decodeAll("2:1000"));
+    }
+}
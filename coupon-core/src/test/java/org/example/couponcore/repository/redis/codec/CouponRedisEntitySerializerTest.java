@@ -0,0 +1,53 @@
+package org.example.couponcore.repository.redis.codec;
+
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+
+class CouponRedisEntitySerializerTest {
+
+    CouponRedisEntitySerializer sut = new CouponRedisEntitySerializer();
+
+    @Test
+    @DisplayName("쿠폰 캐시를 바이너리로 저장하고 다시 읽는다.")
+    void serialize_1() {
+        // Given
+        CouponRedisEntity coupon = new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, 100, true,
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123000000), LocalDateTime.of(2024, 1, 2, 0, 0));
+        // When
+        byte[] bytes = sut.serialize(coupon);
+        // Then
+        Assertions.assertEquals(39, bytes.length);
+        Assertions.assertEquals(coupon, sut.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("발급 수량 제한이 없는 쿠폰은 totalQuantity 를 null 로 읽는다.")
+    void serialize_2() {
+        // Given
+        CouponRedisEntity coupon = new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, null, false,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 2, 0, 0));
+        // When
+        Object result = sut.deserialize(sut.serialize(coupon));
+        // Then
+        Assertions.assertEquals(coupon, result);
+    }
+
+    @Test
+    @DisplayName("이전 형식인 JSON 쿠폰 캐시도 읽는다.")
+    void deserialize_1() {
+        // Given
+        CouponRedisEntity coupon = new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, 100, true,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 2, 0, 0));
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(coupon);
+        // When
+        Object result = sut.deserialize(legacy);
+        // Then
+        Assertions.assertEquals(coupon, result);
+    }
+}
@@ -1,12 +1,12 @@
 package org.example.couponcore.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssuePartitioner;
 import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.model.Coupon;
 import org.example.couponcore.model.CouponType;
 import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
 import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,7 +20,6 @@ import java.util.Collection;
 import java.util.stream.IntStream;
 
 import static org.example.couponcore.exception.ErrorCode.*;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
 import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
 
 class AsyncCouponIssueServiceV1Test extends TestConfig {
@@ -31,9 +30,15 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
     @Autowired
     RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
     @Autowired
     CouponJpaRepository couponJpaRepository;
 
+    @Autowired
+    CouponIssueRequestCodec couponIssueRequestCodec;
+
     @BeforeEach
     void clear() {
         Collection<String> redisKeys = redisTemplate.keys("*");
@@ -65,7 +70,7 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        IntStream.range(0, coupon.getTotalQuantity()).forEach(idx -> redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(idx)));
+        IntStream.range(0, coupon.getTotalQuantity()).forEach(idx -> redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(idx)));
         // When & Then
         CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
         Assertions.assertEquals(INVALID_COUPON_ISSUE_QUANTITY, exception.getErrorCode());
@@ -85,7 +90,7 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(userId));
         // When & Then
         CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
         Assertions.assertEquals(DUPLICATED_COUPON_ISSUE, exception.getErrorCode());
@@ -105,7 +110,7 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().minusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(userId));
         // When & Then
         CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
         Assertions.assertEquals(INVALID_COUPON_ISSUE_DATE, exception.getErrorCode());
@@ -129,13 +134,13 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
         sut.issue(coupon.getId(), userId);
 
         // Then
-        Boolean isSaved = redisTemplate.opsForSet().isMember(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
+        Boolean isSaved = redisTemplate.opsForSet().isMember(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(userId));
         Assertions.assertTrue(isSaved);
     }
 
     @Test
     @DisplayName("쿠폰 발급 - 쿠폰 발급요청이 성공하면 큐에 적재된다.")
-    void issue_6() throws JsonProcessingException {
+    void issue_6() {
         // Given
         long userId = 1;
         Coupon coupon = Coupon.builder()
@@ -147,12 +152,14 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        CouponIssueRequest request = new CouponIssueRequest(coupon.getId(), userId);
         // When
         sut.issue(coupon.getId(), userId);
 
         // Then
         String savedIssueRequest = redisTemplate.opsForList().leftPop(getIssueRequestQueueKey());
-        Assertions.assertEquals(new ObjectMapper().writeValueAsString(request), savedIssueRequest);
+        CouponIssueRequest request = couponIssueRequestCodec.decode(savedIssueRequest);
+        Assertions.assertEquals(coupon.getId(), request.couponId());
+        Assertions.assertEquals(userId, request.userId());
+        Assertions.assertTrue(request.requestedAt() > 0);
     }
 }
\ No newline at end of file
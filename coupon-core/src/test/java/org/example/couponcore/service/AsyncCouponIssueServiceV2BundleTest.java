@@ -0,0 +1,206 @@
+package org.example.couponcore.service;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssueBundleMode;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+
+@TestPropertySource(properties = {
+        "coupon.issue.hot-coupon.shard-count=4",
+        "coupon.issue.hot-coupon.min-quantity=100"
+})
+class AsyncCouponIssueServiceV2BundleTest extends TestConfig {
+
+    @Autowired
+    AsyncCouponIssueServiceV2 sut;
+
+    @Autowired
+    RedisRepository redisRepository;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
+    @Autowired
+    CouponIssueRequestCodec couponIssueRequestCodec;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("묶음 발급 - 모든 쿠폰을 발급 요청하고 큐에는 요청 하나만 적재한다.")
+    void issueBundle_1() {
+        // Given
+        Coupon first = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        Coupon second = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+
+        // When
+        Map<Long, CouponIssueRequestCode> results = sut.issueBundle(1, List.of(first.getId(), second.getId()), CouponIssueBundleMode.ALL_OR_NOTHING);
+
+        // Then
+        Assertions.assertEquals(List.of(CouponIssueRequestCode.SUCCESS, CouponIssueRequestCode.SUCCESS), List.copyOf(results.values()));
+        Assertions.assertEquals(1, redisRepository.lSize(getIssueRequestQueueKey()));
+        List<CouponIssueRequest> requests = couponIssueRequestCodec.decodeAll(redisRepository.lIndex(getIssueRequestQueueKey(), 0));
+        Assertions.assertEquals(List.of(first.getId(), second.getId()), requests.stream().map(CouponIssueRequest::couponId).toList());
+        Assertions.assertTrue(redisTemplate.opsForSet().isMember(couponIssuePartitioner.issueRequestKeyOf(second.getId()), "1"));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 - ALL_OR_NOTHING 이면 한 쿠폰이라도 발급할 수 없을 때 아무 쿠폰도 발급 요청하지 않는다.")
+    void issueBundle_2() {
+        // Given
+        Coupon first = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        Coupon soldOut = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(1)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        redisRepository.issueRequest(soldOut.getId(), 2, 1);
+        redisTemplate.delete(getIssueRequestQueueKey());
+
+        // When
+        Map<Long, CouponIssueRequestCode> results = sut.issueBundle(1, List.of(first.getId(), soldOut.getId()), CouponIssueBundleMode.ALL_OR_NOTHING);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.INCOMPLETE_COUPON_BUNDLE, results.get(first.getId()));
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, results.get(soldOut.getId()));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+        Assertions.assertFalse(redisTemplate.hasKey(couponIssuePartitioner.issueRequestKeyOf(first.getId())));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 - BEST_EFFORT 이면 발급할 수 있는 쿠폰만 발급 요청한다.")
+    void issueBundle_3() {
+        // Given
+        Coupon first = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        Coupon duplicated = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        redisRepository.issueRequest(duplicated.getId(), 1, 10);
+        redisTemplate.delete(getIssueRequestQueueKey());
+
+        // When
+        Map<Long, CouponIssueRequestCode> results = sut.issueBundle(1, List.of(first.getId(), duplicated.getId()), CouponIssueBundleMode.BEST_EFFORT);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.SUCCESS, results.get(first.getId()));
+        Assertions.assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, results.get(duplicated.getId()));
+        List<CouponIssueRequest> requests = couponIssueRequestCodec.decodeAll(redisRepository.lIndex(getIssueRequestQueueKey(), 0));
+        Assertions.assertEquals(List.of(first.getId()), requests.stream().map(CouponIssueRequest::couponId).toList());
+    }
+
+    @Test
+    @DisplayName("묶음 발급 - 발급 기한이 아닌 쿠폰은 Redis 를 거치지 않고 거절한다.")
+    void issueBundle_4() {
+        // Given
+        Coupon first = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        Coupon expired = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(2))
+                .dateIssueEnd(LocalDateTime.now().minusDays(1))
+                .build());
+
+        // When
+        Map<Long, CouponIssueRequestCode> results = sut.issueBundle(1, List.of(first.getId(), expired.getId()), CouponIssueBundleMode.ALL_OR_NOTHING);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.INCOMPLETE_COUPON_BUNDLE, results.get(first.getId()));
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_DATE, results.get(expired.getId()));
+        Assertions.assertEquals(0, redisRepository.lSize(getIssueRequestQueueKey()));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 - 수량 제한이 없는 쿠폰은 단건 발급과 같은 키에 기록해서 같은 유저의 단건 발급 요청을 중복으로 막는다.")
+    void issueBundle_5() {
+        // Given
+        Coupon unlimited = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        sut.issueBundle(1, List.of(unlimited.getId()), CouponIssueBundleMode.BEST_EFFORT);
+
+        // When
+        CouponIssueRequestCode result = sut.issue(unlimited.getId(), 1);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, result);
+        Assertions.assertTrue(redisTemplate.opsForSet().isMember(couponIssuePartitioner.issueRequestKeyOf(unlimited.getId()), "1"));
+    }
+}
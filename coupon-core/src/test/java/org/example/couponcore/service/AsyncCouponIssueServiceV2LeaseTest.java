@@ -0,0 +1,136 @@
+package org.example.couponcore.service;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssuePartitioner;
+import org.example.couponcore.component.CouponStockLeaseManager;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.redis.RedisRepository;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+@TestPropertySource(properties = {
+        "coupon.issue.lease.enabled=true",
+        "coupon.issue.lease.chunk-size=3"
+})
+class AsyncCouponIssueServiceV2LeaseTest extends TestConfig {
+
+    @Autowired
+    AsyncCouponIssueServiceV2 sut;
+
+    @Autowired
+    RedisRepository redisRepository;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @Autowired
+    CouponStockLeaseManager couponStockLeaseManager;
+
+    @BeforeEach
+    void clear() {
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 빌린 수량을 나눠서 발급 수량만큼만 발급 요청을 적재한다.")
+    void issue_1() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(5)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+
+        // When
+        List<CouponIssueRequestCode> results = LongStream.rangeClosed(1, 7)
+                .mapToObj(userId -> sut.issue(coupon.getId(), userId))
+                .toList();
+
+        // Then
+        Assertions.assertEquals(5, results.stream().filter(CouponIssueRequestCode::isSuccess).count());
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, results.get(6));
+        Assertions.assertEquals(5, redisTemplate.opsForSet().size(couponIssuePartitioner.issueRequestKeyOf(coupon.getId())));
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 이미 발급 요청한 유저는 DUPLICATED_COUPON_ISSUE 를 반환하고 빌린 수량을 사용하지 않는다.")
+    void issue_2() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(2)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        sut.issue(coupon.getId(), 1);
+
+        // When
+        CouponIssueRequestCode duplicated = sut.issue(coupon.getId(), 1);
+        CouponIssueRequestCode result = sut.issue(coupon.getId(), 2);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, duplicated);
+        Assertions.assertEquals(CouponIssueRequestCode.SUCCESS, result);
+    }
+
+    @Test
+    @DisplayName("수량 lease - 다른 인스턴스가 빌린 수량과 발급 요청된 수량을 제외하고 빌려준다.")
+    void leaseIssueStock_1() {
+        // Given
+        long couponId = 1;
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(couponId), "1", "2");
+
+        // When
+        int first = redisRepository.leaseIssueStock(couponId, "a", 10, 5, 10000);
+        int second = redisRepository.leaseIssueStock(couponId, "b", 10, 5, 10000);
+        redisRepository.releaseIssueStock(couponId, "a");
+        int third = redisRepository.leaseIssueStock(couponId, "c", 10, 5, 10000);
+
+        // Then
+        Assertions.assertEquals(5, first);
+        Assertions.assertEquals(3, second);
+        Assertions.assertEquals(5, third);
+        Assertions.assertEquals(2, redisTemplate.opsForHash().size(couponIssuePartitioner.issueStockLeaseKeyOf(couponId)));
+    }
+
+    @Test
+    @DisplayName("수량 lease - 버려진 lease 에서 빌린 수량은 되돌리지 않는다.")
+    void release_1() {
+        // Given
+        long couponId = 1000;
+        CouponStockLeaseManager.Permit permit = couponStockLeaseManager.tryAcquire(couponId, 1).orElseThrow();
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(couponId), "1");
+        couponStockLeaseManager.exhaust(couponId);
+
+        // When
+        couponStockLeaseManager.release(permit);
+
+        // Then
+        Assertions.assertTrue(couponStockLeaseManager.tryAcquire(couponId, 1).isEmpty());
+    }
+}
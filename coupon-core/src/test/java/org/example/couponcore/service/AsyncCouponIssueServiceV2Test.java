@@ -1,13 +1,14 @@
 package org.example.couponcore.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssuePartitioner;
 import org.example.couponcore.exception.CouponIssueException;
 import org.example.couponcore.model.Coupon;
 import org.example.couponcore.model.CouponType;
 import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.redis.codec.CouponIssueRequestCodec;
 import org.example.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.example.couponcore.repository.redis.dto.CouponIssueRequestCode;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,7 +21,6 @@ import java.util.Collection;
 import java.util.stream.IntStream;
 
 import static org.example.couponcore.exception.ErrorCode.*;
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
 import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
 
 class AsyncCouponIssueServiceV2Test extends TestConfig {
@@ -30,9 +30,15 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
     @Autowired
     RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
     @Autowired
     CouponJpaRepository couponJpaRepository;
 
+    @Autowired
+    CouponIssueRequestCodec couponIssueRequestCodec;
+
     @BeforeEach
     void clear() {
         Collection<String> redisKeys = redisTemplate.keys("*");
@@ -51,7 +57,7 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
     }
 
     @Test
-    @DisplayName("쿠폰 발급 - 발급 가능 수량이 존재하지 않는다면 예외를 반환한다.")
+    @DisplayName("쿠폰 발급 - 발급 가능 수량이 존재하지 않는다면 INVALID_COUPON_ISSUE_QUANTITY 를 반환한다.")
     void issue_2() {
         // Given
         long userId = 1000;
@@ -64,14 +70,16 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        IntStream.range(0, coupon.getTotalQuantity()).forEach(idx -> redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(idx)));
-        // When & Then
-        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
-        Assertions.assertEquals(INVALID_COUPON_ISSUE_QUANTITY, exception.getErrorCode());
+        IntStream.range(0, coupon.getTotalQuantity()).forEach(idx -> redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(idx)));
+        // When
+        CouponIssueRequestCode result = sut.issue(coupon.getId(), userId);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, result);
     }
 
     @Test
-    @DisplayName("쿠폰 발급 - 이미 발급된 유저라면 예외를 반환한다.")
+    @DisplayName("쿠폰 발급 - 이미 발급된 유저라면 DUPLICATED_COUPON_ISSUE 를 반환한다.")
     void issue_3() {
         // Given
         long userId = 1;
@@ -84,14 +92,16 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
-        // When & Then
-        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
-        Assertions.assertEquals(DUPLICATED_COUPON_ISSUE, exception.getErrorCode());
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(userId));
+        // When
+        CouponIssueRequestCode result = sut.issue(coupon.getId(), userId);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, result);
     }
 
     @Test
-    @DisplayName("쿠폰 발급 - 발급 기한이 유효하지 않다면 예외를 반환한다.")
+    @DisplayName("쿠폰 발급 - 발급 기한이 유효하지 않다면 INVALID_COUPON_ISSUE_DATE 를 반환한다.")
     void issue_4() {
         // Given
         long userId = 1;
@@ -104,10 +114,12 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().minusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
-        // When & Then
-        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
-        Assertions.assertEquals(INVALID_COUPON_ISSUE_DATE, exception.getErrorCode());
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(userId));
+        // When
+        CouponIssueRequestCode result = sut.issue(coupon.getId(), userId);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_DATE, result);
     }
 
     @Test
@@ -125,16 +137,17 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
                 .build();
         couponJpaRepository.save(coupon);
         // When
-        sut.issue(coupon.getId(), userId);
+        CouponIssueRequestCode result = sut.issue(coupon.getId(), userId);
 
         // Then
-        Boolean isSaved = redisTemplate.opsForSet().isMember(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
+        Assertions.assertEquals(CouponIssueRequestCode.SUCCESS, result);
+        Boolean isSaved = redisTemplate.opsForSet().isMember(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()), String.valueOf(userId));
         Assertions.assertTrue(isSaved);
     }
 
     @Test
     @DisplayName("쿠폰 발급 - 쿠폰 발급요청이 성공하면 큐에 적재된다.")
-    void issue_6() throws JsonProcessingException {
+    void issue_6() {
         // Given
         long userId = 1;
         Coupon coupon = Coupon.builder()
@@ -146,13 +159,39 @@ class AsyncCouponIssueServiceV2Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        CouponIssueRequest request = new CouponIssueRequest(coupon.getId(), userId);
         // When
         sut.issue(coupon.getId(), userId);
 
         // Then
         String savedIssueRequest = redisTemplate.opsForList().leftPop(getIssueRequestQueueKey());
-        Assertions.assertEquals(new ObjectMapper().writeValueAsString(request), savedIssueRequest);
+        CouponIssueRequest request = couponIssueRequestCodec.decode(savedIssueRequest);
+        Assertions.assertEquals(coupon.getId(), request.couponId());
+        Assertions.assertEquals(userId, request.userId());
+        Assertions.assertTrue(request.requestedAt() > 0);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("쿠폰 발급 - 발급 수량이 모두 요청된 쿠폰은 Redis 를 거치지 않고 INVALID_COUPON_ISSUE_QUANTITY 를 반환한다.")
+    void issue_7() {
+        // Given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(1)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        sut.issue(coupon.getId(), 1);
+        sut.issue(coupon.getId(), 2);
+        redisTemplate.delete(couponIssuePartitioner.issueRequestKeyOf(coupon.getId()));
+
+        // When
+        CouponIssueRequestCode result = sut.issue(coupon.getId(), 3);
+
+        // Then
+        Assertions.assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, result);
+        Assertions.assertFalse(redisTemplate.hasKey(couponIssuePartitioner.issueRequestKeyOf(coupon.getId())));
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.couponcore.service;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponCacheServiceTest extends TestConfig {
+
+    @Autowired
+    CouponCacheService sut;
+
+    @SpyBean
+    CouponIssueService couponIssueService;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void clean() {
+        couponJpaRepository.deleteAllInBatch();
+        Collection<String> redisKeys = redisTemplate.keys("*");
+        redisTemplate.delete(redisKeys);
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 쿠폰을 동시에 조회하면 쿠폰은 한 번만 조회한다.")
+    void getCouponLocalCache_1() throws Exception {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        int threadCount = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CouponRedisEntity>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < threadCount; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return sut.getCouponLocalCache(coupon.getId());
+            }));
+        }
+        start.countDown();
+        for (Future<CouponRedisEntity> result : results) {
+            Assertions.assertEquals(coupon.getId(), result.get().id());
+        }
+        executor.shutdown();
+
+        // Then
+        Mockito.verify(couponIssueService, Mockito.times(1)).findCoupon(coupon.getId());
+    }
+}
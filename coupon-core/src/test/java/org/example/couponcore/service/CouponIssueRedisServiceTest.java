@@ -1,6 +1,7 @@
 package org.example.couponcore.service;
 
 import org.example.couponcore.TestConfig;
+import org.example.couponcore.component.CouponIssuePartitioner;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,8 +12,6 @@ import org.springframework.data.redis.core.RedisTemplate;
 import java.util.Collection;
 import java.util.stream.IntStream;
 
-import static org.example.couponcore.util.CouponRedisUtils.getIssueRequestKey;
-
 class CouponIssueRedisServiceTest extends TestConfig {
 
     @Autowired
@@ -21,6 +20,9 @@ class CouponIssueRedisServiceTest extends TestConfig {
     @Autowired
     RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    CouponIssuePartitioner couponIssuePartitioner;
+
     @BeforeEach
     void clear() {
         Collection<String> redisKeys = redisTemplate.keys("*");
@@ -45,7 +47,7 @@ class CouponIssueRedisServiceTest extends TestConfig {
         // Given
         int totalIssueQuantity = 10;
         long couponId = 1;
-        IntStream.range(0, totalIssueQuantity).forEach(userId -> redisTemplate.opsForSet().add(getIssueRequestKey(couponId), String.valueOf(userId)));
+        IntStream.range(0, totalIssueQuantity).forEach(userId -> redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(couponId), String.valueOf(userId)));
         // When
         boolean result = sut.availableTotalIssueQuantity(totalIssueQuantity, couponId);
         // Then
@@ -70,7 +72,7 @@ class CouponIssueRedisServiceTest extends TestConfig {
         // Given
         long couponId = 1;
         long userId = 1;
-        redisTemplate.opsForSet().add(getIssueRequestKey(couponId), String.valueOf(userId));
+        redisTemplate.opsForSet().add(couponIssuePartitioner.issueRequestKeyOf(couponId), String.valueOf(userId));
         // When
         boolean result = sut.availableUserIssueQuantity(couponId, userId);
         // Then
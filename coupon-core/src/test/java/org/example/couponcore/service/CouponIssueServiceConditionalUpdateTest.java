@@ -0,0 +1,139 @@
+package org.example.couponcore.service;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.exception.ErrorCode;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponIssue;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponIssueJpaRepository;
+import org.example.couponcore.repository.mysql.CouponIssueRepository;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+@TestPropertySource(properties = "coupon.issue.strategy=conditional-update")
+class CouponIssueServiceConditionalUpdateTest extends TestConfig {
+
+    @Autowired
+    CouponIssueService sut;
+
+    @Autowired
+    CouponIssueJpaRepository couponIssueJpaRepository;
+
+    @Autowired
+    CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @BeforeEach
+    void clean() {
+        couponJpaRepository.deleteAllInBatch();
+        couponIssueJpaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 발급 수량, 기한, 중복 발급 문제가 없다면 쿠폰을 발급")
+    void issue_1() {
+        // Given
+        long userId = 1L;
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        // When
+        sut.issue(coupon.getId(), userId);
+        // Then
+        Coupon couponResult = couponJpaRepository.findById(coupon.getId()).get();
+        Assertions.assertEquals(couponResult.getIssuedQuantity(), 1);
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), userId));
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 발급 수량에 문제가 있다면 예외 반환")
+    void issue_2() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(100)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        // When & Then
+        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), 1L));
+        Assertions.assertEquals(exception.getErrorCode(), ErrorCode.INVALID_COUPON_ISSUE_QUANTITY);
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 발급 기한에 문제가 있다면 예외 반환")
+    void issue_3() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().minusDays(2))
+                .build());
+        // When & Then
+        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), 1L));
+        Assertions.assertEquals(exception.getErrorCode(), ErrorCode.INVALID_COUPON_ISSUE_DATE);
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 중복 발급이라면 예외 반환")
+    void issue_4() {
+        // Given
+        long userId = 1L;
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        couponIssueJpaRepository.save(CouponIssue.builder()
+                .couponId(coupon.getId())
+                .userId(userId)
+                .build());
+        // When & Then
+        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
+        Assertions.assertEquals(exception.getErrorCode(), ErrorCode.DUPLICATED_COUPON_ISSUE);
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 마지막 남은 수량도 발급")
+    void issue_5() {
+        // Given
+        long userId = 1L;
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(99)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        // When
+        sut.issue(coupon.getId(), userId);
+        // Then
+        Coupon couponResult = couponJpaRepository.findById(coupon.getId()).get();
+        Assertions.assertEquals(couponResult.getIssuedQuantity(), 100);
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), userId));
+    }
+}
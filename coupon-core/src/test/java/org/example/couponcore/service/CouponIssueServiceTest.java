@@ -16,6 +16,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 class CouponIssueServiceTest extends TestConfig {
 
@@ -162,4 +165,106 @@ class CouponIssueServiceTest extends TestConfig {
         Assertions.assertEquals(exception.getErrorCode(), ErrorCode.COUPON_NOT_EXIST);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("같은 쿠폰의 발급 요청을 한 번에 발급하고, 이미 발급된 유저는 건너뛴다")
+    void issue_6() {
+        // Given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        couponIssueJpaRepository.save(CouponIssue.builder()
+                .couponId(coupon.getId())
+                .userId(2L)
+                .build());
+        // When
+        sut.issue(coupon.getId(), List.of(1L, 2L, 3L));
+        // Then
+        Coupon couponResult = couponJpaRepository.findById(coupon.getId()).get();
+        Assertions.assertEquals(couponResult.getIssuedQuantity(), 2);
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), 1L));
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), 3L));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 시 남은 발급 수량보다 많은 요청이라면 남은 수량만큼 발급하고 나머지 유저만 실패한다")
+    void issue_7() {
+        // Given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(2)
+                .issuedQuantity(1)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        // When
+        Map<Long, CouponIssueException> failures = sut.issue(coupon.getId(), List.of(1L, 2L));
+        // Then
+        Assertions.assertEquals(Set.of(2L), failures.keySet());
+        Assertions.assertEquals(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, failures.get(2L).getErrorCode());
+        Assertions.assertEquals(2, couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity());
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), 1L));
+        Assertions.assertNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), 2L));
+    }
+
+    @Test
+    @DisplayName("묶음 발급 시 이미 발급된 유저는 중복 발급 예외로 반환하고, 그만큼 다음 유저를 발급한다")
+    void issue_8() {
+        // Given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(3)
+                .issuedQuantity(1)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        couponIssueJpaRepository.save(CouponIssue.builder()
+                .couponId(coupon.getId())
+                .userId(1L)
+                .build());
+        // When
+        Map<Long, CouponIssueException> failures = sut.issue(coupon.getId(), List.of(1L, 2L, 3L, 4L));
+        // Then
+        Assertions.assertEquals(Set.of(1L, 4L), failures.keySet());
+        Assertions.assertEquals(ErrorCode.DUPLICATED_COUPON_ISSUE, failures.get(1L).getErrorCode());
+        Assertions.assertEquals(3, couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity());
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), 3L));
+    }
+
+    @Test
+    @DisplayName("lock 묶음 발급 시 이미 발급된 유저는 중복 발급 예외로 실패하고, 그만큼 다음 유저를 발급한다")
+    void issueWithLock_1() {
+        // Given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(3)
+                .issuedQuantity(1)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        couponIssueJpaRepository.save(CouponIssue.builder()
+                .couponId(coupon.getId())
+                .userId(1L)
+                .build());
+        // When
+        Map<Long, CouponIssueException> failures = sut.issueWithLock(coupon.getId(), List.of(1L, 2L, 3L, 4L));
+        // Then
+        Assertions.assertEquals(Set.of(1L, 4L), failures.keySet());
+        Assertions.assertEquals(ErrorCode.DUPLICATED_COUPON_ISSUE, failures.get(1L).getErrorCode());
+        Assertions.assertEquals(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, failures.get(4L).getErrorCode());
+        Assertions.assertEquals(3, couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity());
+        Assertions.assertNotNull(couponIssueRepository.findFirstCouponIssue(coupon.getId(), 3L));
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.example.couponcore.service;
+
+import org.example.couponcore.TestConfig;
+import org.example.couponcore.exception.CouponIssueException;
+import org.example.couponcore.exception.ErrorCode;
+import org.example.couponcore.model.Coupon;
+import org.example.couponcore.model.CouponStockSlot;
+import org.example.couponcore.model.CouponType;
+import org.example.couponcore.repository.mysql.CouponIssueJpaRepository;
+import org.example.couponcore.repository.mysql.CouponJpaRepository;
+import org.example.couponcore.repository.mysql.CouponStockSlotJpaRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+class CouponStockServiceTest extends TestConfig {
+
+    @Autowired
+    CouponStockService sut;
+
+    @Autowired
+    CouponIssueService couponIssueService;
+
+    @Autowired
+    CouponJpaRepository couponJpaRepository;
+
+    @Autowired
+    CouponIssueJpaRepository couponIssueJpaRepository;
+
+    @Autowired
+    CouponStockSlotJpaRepository couponStockSlotJpaRepository;
+
+    @BeforeEach
+    void clean() {
+        couponJpaRepository.deleteAllInBatch();
+        couponIssueJpaRepository.deleteAllInBatch();
+        couponStockSlotJpaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("발급 최대 수량과 발급된 수량을 slot 으로 나눈다")
+    void shard_1() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(3)
+                .dateIssueStart(LocalDateTime.now().plusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(2))
+                .build());
+        // When
+        sut.shard(coupon.getId(), 3);
+        // Then
+        List<CouponStockSlot> slots = couponStockSlotJpaRepository.findAll();
+        Assertions.assertEquals(List.of(4, 3, 3), slots.stream().map(CouponStockSlot::getTotalQuantity).toList());
+        Assertions.assertEquals(3, sut.getIssuedQuantityWithoutCache(coupon.getId()));
+    }
+
+    @Test
+    @DisplayName("발급 기간 중인 쿠폰은 slot 으로 나눌 수 없다")
+    void shard_2() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(3)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        // When & Then
+        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> sut.shard(coupon.getId(), 3));
+        Assertions.assertEquals(ErrorCode.INVALID_COUPON_ISSUE_DATE, exception.getErrorCode());
+        Assertions.assertTrue(couponStockSlotJpaRepository.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("slot 의 수량이 부족하면 남은 수량만큼만 증가시키고, 모두 소진되면 더 이상 증가시키지 않는다")
+    void increase_1() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(5)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().plusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(2))
+                .build());
+        sut.shard(coupon.getId(), 2);
+        // When
+        CouponStockService.Increase first = sut.increase(coupon.getId(), 4);
+        CouponStockService.Increase second = sut.increase(coupon.getId(), 3);
+        CouponStockService.Increase third = sut.increase(coupon.getId(), 1);
+        // Then
+        Assertions.assertEquals(4, first.quantity());
+        Assertions.assertFalse(first.soldOut());
+        Assertions.assertEquals(1, second.quantity());
+        Assertions.assertTrue(second.soldOut());
+        Assertions.assertEquals(0, third.quantity());
+        Assertions.assertFalse(third.soldOut());
+        Assertions.assertEquals(5, sut.getIssuedQuantityWithoutCache(coupon.getId()));
+    }
+
+    @Test
+    @DisplayName("slot 으로 나눈 쿠폰을 발급하면 slot 의 발급 수량이 증가하고, 모두 소진되면 수량 예외를 반환한다")
+    void issue_1() {
+        // Given
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(2)
+                .issuedQuantity(0)
+                .stockSlotCount(2)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build());
+        couponStockSlotJpaRepository.saveAll(List.of(
+                CouponStockSlot.builder().couponId(coupon.getId()).slot(0).totalQuantity(1).issuedQuantity(0).build(),
+                CouponStockSlot.builder().couponId(coupon.getId()).slot(1).totalQuantity(1).issuedQuantity(0).build()));
+        // When
+        couponIssueService.issue(coupon.getId(), 1L);
+        couponIssueService.issue(coupon.getId(), List.of(2L));
+        CouponIssueException exception = Assertions.assertThrows(CouponIssueException.class, () -> couponIssueService.issue(coupon.getId(), 3L));
+        // Then
+        Assertions.assertEquals(ErrorCode.INVALID_COUPON_ISSUE_QUANTITY, exception.getErrorCode());
+        Assertions.assertEquals(2, sut.getIssuedQuantityWithoutCache(coupon.getId()));
+    }
+
+    @Test
+    @DisplayName("여러 트랜잭션이 동시에 slot 의 수량을 증가시켜도 교착 상태 없이 모든 slot 을 소진한다")
+    void increase_2() throws Exception {
+        // Given
+        int totalQuantity = 100;
+        Coupon coupon = couponJpaRepository.save(Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(totalQuantity)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().plusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(2))
+                .build());
+        sut.shard(coupon.getId(), 4);
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        // When
+        List<Future<?>> futures = IntStream.range(0, 16)
+                .<Future<?>>mapToObj(i -> executorService.submit(() -> {
+                    while (sut.getIssuedQuantityWithoutCache(coupon.getId()) < totalQuantity) {
+                        sut.increase(coupon.getId(), 1 + i % 3);
+                    }
+                }))
+                .toList();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        // Then
+        Assertions.assertEquals(totalQuantity, sut.getIssuedQuantityWithoutCache(coupon.getId()));
+        Assertions.assertEquals(0, couponStockSlotJpaRepository.countIssuableSlots(coupon.getId()));
+    }
+}